@@ -0,0 +1,236 @@
+package com.example.apigateway;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+// ReactiveJwtDecoder used by the oauth2ResourceServer().jwt() chain in GatewayConfig (picked up as a bean).
+// Verified tokens are cached by SHA-256 of the token until their exp, so a client repeating its bearer
+// token costs one hash instead of a signature check; concurrent first requests with the same token share
+// one verification. Tokens without exp are verified every time.
+// JWKs come from a single-flight source: one fetch of jwk-set-uri at a time, shared by all waiting
+// requests, and an unknown kid (key rotation) triggers at most one refetch per jwks-min-refresh-interval.
+// A set older than jwks-max-age is refreshed in the background while requests keep using it, so revoked
+// keys drop out within that age.
+@Component
+public class CachingJwtDecoder implements ReactiveJwtDecoder {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingJwtDecoder.class);
+
+    private final ReactiveJwtDecoder delegate;
+    private final AsyncCache<String, Jwt> verifiedTokens;
+    private final Duration maxTtl;
+    private final MeterRegistry meterRegistry;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public CachingJwtDecoder(WebClient.Builder webClientBuilder,
+                             MeterRegistry meterRegistry,
+                             @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                             @Value("${gateway.jwt-cache.max-entries:50000}") long maxEntries,
+                             @Value("${gateway.jwt-cache.max-ttl:1h}") Duration maxTtl,
+                             @Value("${gateway.jwt-cache.jwks-min-refresh-interval:30s}") Duration jwksMinRefreshInterval,
+                             @Value("${gateway.jwt-cache.jwks-max-age:5m}") Duration jwksMaxAge) {
+        this.meterRegistry = meterRegistry;
+        this.maxTtl = maxTtl;
+        this.delegate = NimbusReactiveJwtDecoder
+                .withJwkSource(new SingleFlightJwkSource(webClientBuilder.build(), jwkSetUri, jwksMinRefreshInterval, jwksMaxAge, meterRegistry))
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new TokenExpiry())
+                .buildAsync();
+
+        this.cacheHits = Counter.builder("gateway.jwt.cache")
+                .tag("result", "hit")
+                .description("Bearer tokens answered from the verified-token cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("gateway.jwt.cache")
+                .tag("result", "miss")
+                .description("Bearer tokens that needed a signature verification")
+                .register(meterRegistry);
+        Gauge.builder("gateway.jwt.cache.size", verifiedTokens, cache -> cache.synchronous().estimatedSize())
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+        log.info("Caching verified JWTs (max {} entries, max ttl {}), JWKs from {}", maxEntries, maxTtl, jwkSetUri);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        String key = sha256(token);
+        if (verifiedTokens.getIfPresent(key) != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+        }
+        // A failed verification completes the future exceptionally, which Caffeine never keeps
+        return Mono.fromFuture(() -> verifiedTokens.get(key, (k, executor) -> verify(token).toFuture()))
+                // Not cached beyond exp, but an entry can be read in the instant it expires
+                .filter(jwt -> jwt.getExpiresAt() == null || jwt.getExpiresAt().isAfter(Instant.now()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    verifiedTokens.synchronous().invalidate(key);
+                    return verify(token);
+                }));
+    }
+
+    private Mono<Jwt> verify(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return delegate.decode(token)
+                .doOnEach(signal -> {
+                    if (signal.isOnNext() || signal.isOnError()) {
+                        sample.stop(Timer.builder("gateway.jwt.verification")
+                                .tag("outcome", signal.isOnNext() ? "valid" : "invalid")
+                                .description("Time to verify a bearer token's signature and claims")
+                                .register(meterRegistry));
+                    }
+                });
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Entries live until the token's exp (capped at max-ttl); tokens without exp aren't kept
+    private class TokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            if (jwt.getExpiresAt() == null) {
+                return 0;
+            }
+            Duration untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt());
+            return Math.max(0, Math.min(untilExpiry.toNanos(), maxTtl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    // JWK source with one in-flight fetch of the JWK set at a time, shared by every caller
+    static final class SingleFlightJwkSource implements Function<SignedJWT, Flux<JWK>> {
+
+        private final WebClient webClient;
+        private final String jwkSetUri;
+        private final Duration minRefreshInterval;
+        private final Duration maxAge;
+        private final Counter fetchCounter;
+        private final AtomicReference<CompletableFuture<JWKSet>> inFlight = new AtomicReference<>();
+        private volatile JWKSet current;
+        private volatile long currentFetchedNanos;
+        private volatile long lastFetchNanos;
+
+        SingleFlightJwkSource(WebClient webClient, String jwkSetUri, Duration minRefreshInterval, Duration maxAge, MeterRegistry meterRegistry) {
+            this.webClient = webClient;
+            this.jwkSetUri = jwkSetUri;
+            this.minRefreshInterval = minRefreshInterval;
+            this.maxAge = maxAge;
+            this.lastFetchNanos = System.nanoTime() - minRefreshInterval.toNanos();
+            this.fetchCounter = Counter.builder("gateway.jwt.jwks.fetches")
+                    .description("Fetches of the JWK set (cold start, max age and key rotation)")
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public Flux<JWK> apply(SignedJWT jwt) {
+            JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+            JWKSet known = current;
+            if (known == null) {
+                return load().flatMapIterable(selector::select);
+            }
+            if (System.nanoTime() - currentFetchedNanos > maxAge.toNanos()) {
+                // Keep verifying with the current set; a failed refresh is retried by the next request
+                load().subscribe(set -> { }, error -> log.warn("Background refresh of the JWK set failed: {}", error.getMessage()));
+            }
+            List<JWK> keys = selector.select(known);
+            if (!keys.isEmpty() || System.nanoTime() - lastFetchNanos < minRefreshInterval.toNanos()) {
+                return Flux.fromIterable(keys);
+            }
+            // Unknown kid: the keys were probably rotated
+            return load().flatMapIterable(selector::select);
+        }
+
+        // Joins the running fetch or starts one; its subscribers can cancel without cancelling it for the others
+        private Mono<JWKSet> load() {
+            while (true) {
+                CompletableFuture<JWKSet> running = inFlight.get();
+                if (running != null) {
+                    return Mono.fromFuture(running, true);
+                }
+                CompletableFuture<JWKSet> started = new CompletableFuture<>();
+                if (inFlight.compareAndSet(null, started)) {
+                    fetch().subscribe(set -> {
+                        current = set;
+                        currentFetchedNanos = System.nanoTime();
+                        inFlight.set(null);
+                        started.complete(set);
+                    }, error -> {
+                        inFlight.set(null);
+                        started.completeExceptionally(error);
+                    });
+                    return Mono.fromFuture(started, true);
+                }
+            }
+        }
+
+        private Mono<JWKSet> fetch() {
+            lastFetchNanos = System.nanoTime();
+            fetchCounter.increment();
+            log.info("Fetching JWK set from {}", jwkSetUri);
+            return webClient.get()
+                    .uri(jwkSetUri)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty JWK set response from " + jwkSetUri)))
+                    .<JWKSet>handle((body, sink) -> {
+                        try {
+                            sink.next(JWKSet.parse(body));
+                        } catch (ParseException e) {
+                            sink.error(new IllegalStateException("Invalid JWK set from " + jwkSetUri, e));
+                        }
+                    });
+        }
+    }
+}
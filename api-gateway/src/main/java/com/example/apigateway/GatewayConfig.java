@@ -24,6 +24,10 @@ public class GatewayConfig {
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchange -> exchange
                         .pathMatchers("/fallback/**").permitAll()
+                        // Actuator is only served on management.server.port; probes and scrapes need no token there,
+                        // every other endpoint needs an admin token
+                        .pathMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        .pathMatchers("/actuator/**").hasAuthority("SCOPE_gateway-admin")
                         .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(ServerHttpSecurity.OAuth2ResourceServerSpec::jwt);
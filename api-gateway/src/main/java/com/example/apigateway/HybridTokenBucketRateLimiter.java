@@ -0,0 +1,378 @@
+package com.example.apigateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token-bucket rate limiter for the RequestRateLimiter filter that decides in process instead of running the
+// Redis Lua script on every request. Buckets (per route and key, e.g. the principal from userKeyResolver)
+// are updated lock-free with a CAS on an immutable state, so the request path never waits on Redis.
+// Every sync-interval the tokens consumed locally are added to a per-window Redis counter
+// (rate_limiter:{route}:{key}:{window}); whatever the other instances consumed in the same window is then
+// debited from the local bucket, which keeps the cluster-wide limit roughly accurate (off by at most one
+// sync interval of traffic). The counters are incremented by one script call per SYNC_BATCH_SIZE buckets,
+// so a sweep costs a handful of round trips however many principals are active. A batch that errors or
+// is slower than sync-timeout puts its drained tokens back (pushed again by the next sync) and switches
+// the limiter to local-only (each instance enforces the full limit) for local-only-backoff.
+// Configured per route like RedisRateLimiter, with hybrid-rate-limiter.* args.
+@Component
+@Primary
+public class HybridTokenBucketRateLimiter extends AbstractRateLimiter<HybridTokenBucketRateLimiter.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(HybridTokenBucketRateLimiter.class);
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "hybrid-rate-limiter";
+    private static final String REDIS_KEY_PREFIX = "rate_limiter:";
+    private static final int SYNC_BATCH_SIZE = 500;
+    private static final int SYNC_CONCURRENCY = 4;
+    // INCRBY per key, arming the expiry when this call created the counter; returns the new totals.
+    // Multi-key, so with Redis Cluster the keys would need a common hash tag.
+    private static final RedisScript<List<Long>> INCREMENT_SCRIPT = incrementScript();
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Config defaultConfig;
+    private final Duration window;
+    private final Duration syncTimeout;
+    private final Duration localOnlyBackoff;
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    private volatile long localOnlyUntilNanos;
+    private final Map<String, Counter[]> decisionCounters = new ConcurrentHashMap<>();
+    private final Counter remoteTokensCounter;
+    private final DistributionSummary overshootSummary;
+    private final Timer syncOkTimer;
+    private final Counter syncFailedCounter;
+
+    public HybridTokenBucketRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                        ConfigurationService configurationService,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${gateway.rate-limiter.replenish-rate:100}") int defaultReplenishRate,
+                                        @Value("${gateway.rate-limiter.burst-capacity:200}") int defaultBurstCapacity,
+                                        @Value("${gateway.rate-limiter.window:1s}") Duration window,
+                                        @Value("${gateway.rate-limiter.sync-timeout:100ms}") Duration syncTimeout,
+                                        @Value("${gateway.rate-limiter.local-only-backoff:10s}") Duration localOnlyBackoff,
+                                        @Value("${gateway.rate-limiter.max-buckets:100000}") long maxBuckets,
+                                        @Value("${gateway.rate-limiter.idle-bucket-ttl:5m}") Duration idleBucketTtl) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.defaultConfig = new Config().setReplenishRate(defaultReplenishRate).setBurstCapacity(defaultBurstCapacity);
+        this.window = window;
+        this.syncTimeout = syncTimeout;
+        this.localOnlyBackoff = localOnlyBackoff;
+        this.localOnlyUntilNanos = System.nanoTime();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleBucketTtl)
+                .build();
+
+        this.remoteTokensCounter = Counter.builder("gateway.rate_limiter.remote_tokens")
+                .description("Tokens consumed on other gateway instances and debited from local buckets")
+                .register(meterRegistry);
+        this.overshootSummary = DistributionSummary.builder("gateway.rate_limiter.overshoot")
+                .description("Requests admitted cluster-wide beyond a bucket's allowance for a window (limit accuracy)")
+                .register(meterRegistry);
+        this.syncOkTimer = Timer.builder("gateway.rate_limiter.sync")
+                .tag("outcome", "ok")
+                .description("Duration of a sync of local bucket consumption through Redis")
+                .register(meterRegistry);
+        this.syncFailedCounter = Counter.builder("gateway.rate_limiter.sync.failures")
+                .description("Syncs through Redis that failed or timed out (the limiter then runs local-only)")
+                .register(meterRegistry);
+        Gauge.builder("gateway.rate_limiter.unsynced_tokens", this, HybridTokenBucketRateLimiter::unsyncedTokens)
+                .description("Tokens consumed locally and not yet pushed to Redis (drift from the cluster-wide count)")
+                .register(meterRegistry);
+        Gauge.builder("gateway.rate_limiter.local_only", this, limiter -> limiter.isLocalOnly() ? 1 : 0)
+                .description("1 while Redis is skipped after a failed or slow sync")
+                .register(meterRegistry);
+        Gauge.builder("gateway.rate_limiter.buckets", buckets, Cache::estimatedSize)
+                .description("Token buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = configFor(routeId);
+        TokenBucket bucket = buckets.get(new BucketKey(routeId, id), key -> new TokenBucket(config.getBurstCapacity(), System.nanoTime()));
+        long remaining = bucket.tryConsume(config, System.nanoTime());
+        boolean allowed = remaining >= 0;
+        countersFor(routeId)[allowed ? 0 : 1].increment();
+        return Mono.just(new Response(allowed, Map.of(
+                RedisRateLimiter.REMAINING_HEADER, String.valueOf(Math.max(remaining, 0)),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()))));
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limiter.sync-interval-ms:200}")
+    public void syncWithRedis() {
+        if (isLocalOnly()) {
+            // Consumption while local-only is not replayed into later windows
+            buckets.asMap().values().forEach(bucket -> bucket.unsynced.reset());
+            return;
+        }
+        long windowIndex = System.currentTimeMillis() / window.toMillis();
+        List<Push> pushes = new ArrayList<>();
+        buckets.asMap().forEach((key, bucket) -> {
+            Push push = drain(key, bucket, windowIndex);
+            if (push != null) {
+                pushes.add(push);
+            }
+        });
+        if (pushes.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean failed = new AtomicBoolean();
+        Flux.fromIterable(pushes)
+            .buffer(SYNC_BATCH_SIZE)
+            .flatMap(batch -> pushBatch(batch, windowIndex)
+                .onErrorResume(e -> {
+                    if (failed.compareAndSet(false, true)) {
+                        log.warn("Rate limiter sync through Redis failed or took longer than {}, running local-only for {}: {}",
+                                syncTimeout, localOnlyBackoff, e.getMessage());
+                    }
+                    return Mono.empty();
+                }), SYNC_CONCURRENCY)
+            .then()
+            .block(); // Bounded by the per-batch timeout
+        if (failed.get()) {
+            syncFailedCounter.increment();
+            localOnlyUntilNanos = System.nanoTime() + localOnlyBackoff.toNanos();
+        } else {
+            syncOkTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    // Takes the bucket's consumption since the last sync; null if it was idle in this window (nothing to push or debit)
+    private Push drain(BucketKey key, TokenBucket bucket, long windowIndex) {
+        if (bucket.window != windowIndex) {
+            bucket.window = windowIndex;
+            bucket.ownInWindow = 0;
+            bucket.othersSeenInWindow = 0;
+            bucket.overshootSeenInWindow = 0;
+        }
+        long consumed = bucket.unsynced.sumThenReset();
+        if (consumed == 0 && bucket.ownInWindow == 0) {
+            return null;
+        }
+        bucket.ownInWindow += consumed;
+        return new Push(key, bucket, consumed);
+    }
+
+    // Pushes this instance's consumption for the window and debits what the other instances consumed since
+    // the last sync. Unless the batch completes, its drained tokens are put back, also when it times out
+    // or is cancelled.
+    private Mono<Void> pushBatch(List<Push> batch, long windowIndex) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<String> args = new ArrayList<>(batch.size() + 1);
+        for (Push push : batch) {
+            keys.add(REDIS_KEY_PREFIX + push.key().routeId() + ":" + push.key().id() + ":" + windowIndex);
+            args.add(String.valueOf(push.consumed()));
+        }
+        args.add(String.valueOf(window.multipliedBy(2).toMillis()));
+
+        return redisTemplate.execute(INCREMENT_SCRIPT, keys, args)
+            .reduce(new ArrayList<Long>(), (totals, chunk) -> {
+                totals.addAll(chunk);
+                return totals;
+            })
+            .timeout(syncTimeout)
+            .doOnNext(totals -> {
+                long now = System.nanoTime();
+                for (int i = 0; i < batch.size(); i++) {
+                    applyTotal(batch.get(i), totals.get(i), now);
+                }
+            })
+            .doOnError(e -> batch.forEach(Push::restore))
+            .doOnCancel(() -> batch.forEach(Push::restore))
+            .then();
+    }
+
+    // Route args win, then the args bound from default-filters, then the gateway.rate-limiter.* properties
+    private Config configFor(String routeId) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            config = getConfig().get(RouteDefinitionRouteLocator.DEFAULT_FILTERS);
+        }
+        return config != null ? config : defaultConfig;
+    }
+
+    private void applyTotal(Push push, long total, long nowNanos) {
+        TokenBucket bucket = push.bucket();
+        Config config = configFor(push.key().routeId());
+        long others = total - bucket.ownInWindow;
+        long remoteDelta = others - bucket.othersSeenInWindow;
+        if (remoteDelta > 0) {
+            bucket.othersSeenInWindow = others;
+            bucket.debit(remoteDelta, config, nowNanos);
+            remoteTokensCounter.increment(remoteDelta);
+        }
+        long allowance = config.getBurstCapacity() + (long) (config.getReplenishRate() * window.toMillis() / 1000.0);
+        long overshoot = Math.max(0, total - allowance);
+        if (overshoot > bucket.overshootSeenInWindow) {
+            overshootSummary.record(overshoot - bucket.overshootSeenInWindow);
+            bucket.overshootSeenInWindow = overshoot;
+        }
+    }
+
+    boolean isLocalOnly() {
+        return System.nanoTime() - localOnlyUntilNanos < 0;
+    }
+
+    double unsyncedTokens() {
+        return buckets.asMap().values().stream().mapToLong(bucket -> bucket.unsynced.sum()).sum();
+    }
+
+    private Counter[] countersFor(String routeId) {
+        return decisionCounters.computeIfAbsent(routeId, id -> new Counter[] {
+                decisionCounter(id, "allowed"), decisionCounter(id, "denied")});
+    }
+
+    private Counter decisionCounter(String routeId, String outcome) {
+        return Counter.builder("gateway.rate_limiter.requests")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .description("Requests checked by the hybrid rate limiter")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<Long>> incrementScript() {
+        return (RedisScript) RedisScript.of("""
+                local totals = {}
+                for i, key in ipairs(KEYS) do
+                  local increment = tonumber(ARGV[i])
+                  local total = redis.call('INCRBY', key, increment)
+                  if total == increment then
+                    redis.call('PEXPIRE', key, ARGV[#KEYS + 1])
+                  end
+                  totals[i] = total
+                end
+                return totals
+                """, List.class);
+    }
+
+    private record BucketKey(String routeId, String id) {}
+
+    // Tokens drained from a bucket for one sync
+    private record Push(BucketKey key, TokenBucket bucket, long consumed) {
+
+        // Pushed again on the next successful sync
+        void restore() {
+            bucket.ownInWindow -= consumed;
+            bucket.unsynced.add(consumed);
+        }
+    }
+
+    static final class TokenBucket {
+
+        private record State(double tokens, long refilledAtNanos) {}
+
+        private final AtomicReference<State> state;
+        final LongAdder unsynced = new LongAdder();
+
+        // Sync bookkeeping, only touched by the (single) scheduled sync and the batch callbacks it waits for
+        long window = -1;
+        long ownInWindow;
+        long othersSeenInWindow;
+        long overshootSeenInWindow;
+
+        TokenBucket(int burstCapacity, long nowNanos) {
+            this.state = new AtomicReference<>(new State(burstCapacity, nowNanos));
+        }
+
+        // Remaining tokens after taking the requested ones, or -1 if there weren't enough
+        long tryConsume(Config config, long nowNanos) {
+            while (true) {
+                State current = state.get();
+                double tokens = refill(current, config, nowNanos);
+                if (tokens < config.getRequestedTokens()) {
+                    return -1;
+                }
+                if (state.compareAndSet(current, new State(tokens - config.getRequestedTokens(), nowNanos))) {
+                    unsynced.add(config.getRequestedTokens());
+                    return (long) (tokens - config.getRequestedTokens());
+                }
+            }
+        }
+
+        void debit(long tokens, Config config, long nowNanos) {
+            while (true) {
+                State current = state.get();
+                double remaining = Math.max(0, refill(current, config, nowNanos) - tokens);
+                if (state.compareAndSet(current, new State(remaining, nowNanos))) {
+                    return;
+                }
+            }
+        }
+
+        private static double refill(State state, Config config, long nowNanos) {
+            double elapsedSeconds = Math.max(0, nowNanos - state.refilledAtNanos()) / 1_000_000_000.0;
+            return Math.min(config.getBurstCapacity(), state.tokens() + elapsedSeconds * config.getReplenishRate());
+        }
+    }
+
+    // Per-route args, bound from hybrid-rate-limiter.* like RedisRateLimiter.Config
+    public static class Config {
+
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.apigateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sheds load before an upstream slowdown turns into requests queueing behind the 30 s response-timeout
+// (the circuit breaker only reacts once failures pile up). Per route it tracks the requests in flight and
+// an EWMA of upstream latency, which includes the time spent queued upstream. Load is the larger of
+// in-flight / max-in-flight and latency / target-latency; each priority class is rejected with
+// 503 + Retry-After once load reaches its shed-at level, so low-priority traffic (document listings) goes
+// first. Critical traffic (submissions) is only rejected at the hard in-flight limit, never for latency.
+// Runs after ResponseCacheFilter, so cache hits are never shed.
+@Component
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadSheddingFilter.class);
+
+    private static final double EWMA_ALPHA = 0.2;
+
+    enum Priority { CRITICAL, NORMAL, LOW }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final Duration targetLatency;
+    private final double normalShedAt;
+    private final double lowShedAt;
+    private final List<RequestMatcher> criticalRequests;
+    private final List<RequestMatcher> lowPriorityRequests;
+    private final Map<String, RouteLoad> routeLoads = new ConcurrentHashMap<>();
+    private final Map<String, Counter> shedCounters = new ConcurrentHashMap<>();
+
+    public LoadSheddingFilter(MeterRegistry meterRegistry,
+                              @Value("${gateway.load-shedding.enabled:true}") boolean enabled,
+                              @Value("${gateway.load-shedding.max-in-flight:200}") int maxInFlight,
+                              @Value("${gateway.load-shedding.target-latency:2s}") Duration targetLatency,
+                              @Value("${gateway.load-shedding.normal-shed-at:0.85}") double normalShedAt,
+                              @Value("${gateway.load-shedding.low-shed-at:0.6}") double lowShedAt,
+                              @Value("${gateway.load-shedding.critical-requests:POST /api/loans/applications}") List<String> criticalRequests,
+                              @Value("${gateway.load-shedding.low-priority-requests:GET /api/loans/applications/*/documents}") List<String> lowPriorityRequests) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.targetLatency = targetLatency;
+        this.normalShedAt = normalShedAt;
+        this.lowShedAt = lowShedAt;
+        this.criticalRequests = criticalRequests.stream().map(RequestMatcher::parse).toList();
+        this.lowPriorityRequests = lowPriorityRequests.stream().map(RequestMatcher::parse).toList();
+        log.info("Load shedding {}: max {} in flight per route, target latency {}, low priority shed at {}, normal at {}",
+                enabled ? "enabled" : "disabled", maxInFlight, targetLatency, lowShedAt, normalShedAt);
+    }
+
+    @Override
+    public int getOrder() {
+        return 0; // After ResponseCacheFilter, before the route filters (rate limiter, circuit breaker)
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null) {
+            return chain.filter(exchange);
+        }
+        RouteLoad load = loadFor(route.getId());
+        Priority priority = classify(exchange.getRequest());
+        // Admitted first and given back on rejection, so concurrent requests can't all pass the same check
+        int others = load.inFlight.incrementAndGet() - 1;
+        if (shouldShed(priority, others, load)) {
+            load.inFlight.decrementAndGet();
+            shedCounter(route.getId(), priority).increment();
+            return shed(exchange.getResponse(), load);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    load.inFlight.decrementAndGet();
+                    load.recordLatency(System.nanoTime() - start);
+                });
+    }
+
+    private Priority classify(ServerHttpRequest request) {
+        if (criticalRequests.stream().anyMatch(matcher -> matcher.matches(request))) {
+            return Priority.CRITICAL;
+        }
+        if (lowPriorityRequests.stream().anyMatch(matcher -> matcher.matches(request))) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    // Critical requests only hit the hard in-flight limit; a slow upstream alone never sheds them
+    private boolean shouldShed(Priority priority, int others, RouteLoad load) {
+        return switch (priority) {
+            case CRITICAL -> others >= maxInFlight;
+            case NORMAL -> load.level(others, maxInFlight, targetLatency) >= normalShedAt;
+            case LOW -> load.level(others, maxInFlight, targetLatency) >= lowShedAt;
+        };
+    }
+
+    // Retry once the upstream has had time to work off what is in flight
+    private static Mono<Void> shed(ServerHttpResponse response, RouteLoad load) {
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(load.latencyNanos() / 1_000_000_000.0));
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private RouteLoad loadFor(String routeId) {
+        return routeLoads.computeIfAbsent(routeId, id -> {
+            RouteLoad load = new RouteLoad();
+            Gauge.builder("gateway.load_shedding.in_flight", load.inFlight, AtomicInteger::get)
+                    .tag("route", id)
+                    .description("Requests in flight to the route's upstream")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.load_shedding.latency", load, l -> l.latencyNanos() / 1_000_000.0)
+                    .tag("route", id)
+                    .description("EWMA of upstream latency in ms (includes upstream queueing)")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.load_shedding.load", load, l -> l.level(maxInFlight, targetLatency))
+                    .tag("route", id)
+                    .description("Load level compared against each priority's shed-at threshold (1.0 = hard limit)")
+                    .register(meterRegistry);
+            return load;
+        });
+    }
+
+    private Counter shedCounter(String routeId, Priority priority) {
+        return shedCounters.computeIfAbsent(routeId + ":" + priority, key -> Counter.builder("gateway.load_shedding.shed")
+                .tag("route", routeId)
+                .tag("priority", priority.name().toLowerCase())
+                .description("Requests rejected with 503 by load shedding")
+                .register(meterRegistry));
+    }
+
+    static final class RouteLoad {
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong latencyEwmaNanos = new AtomicLong();
+
+        double level(int maxInFlight, Duration targetLatency) {
+            return level(inFlight.get(), maxInFlight, targetLatency);
+        }
+
+        // With nothing in flight the latency is stale, and ignoring it lets a fully shed route recover
+        double level(int current, int maxInFlight, Duration targetLatency) {
+            if (current == 0) {
+                return 0;
+            }
+            return Math.max((double) current / maxInFlight, (double) latencyNanos() / targetLatency.toNanos());
+        }
+
+        long latencyNanos() {
+            return latencyEwmaNanos.get();
+        }
+
+        void recordLatency(long nanos) {
+            latencyEwmaNanos.getAndUpdate(current -> current == 0 ? nanos : (long) (EWMA_ALPHA * nanos + (1 - EWMA_ALPHA) * current));
+        }
+    }
+
+    // "METHOD /path/pattern" (or just a pattern for any method)
+    private record RequestMatcher(HttpMethod method, PathPattern pattern) {
+
+        static RequestMatcher parse(String spec) {
+            String[] parts = spec.trim().split("\\s+", 2);
+            return parts.length == 2
+                    ? new RequestMatcher(HttpMethod.valueOf(parts[0]), PathPatternParser.defaultInstance.parse(parts[1]))
+                    : new RequestMatcher(null, PathPatternParser.defaultInstance.parse(parts[0]));
+        }
+
+        boolean matches(ServerHttpRequest request) {
+            return (method == null || method.equals(request.getMethod()))
+                    && pattern.matches(PathContainer.parsePath(request.getPath().value()));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.apigateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+// One round trip for the application status screen: fetches the application from application-service and
+// its risk decision from risk-assessment-service in parallel and merges both into one document.
+// Each leg has its own timeout; a leg that fails or times out is reported in "legs" and the document is
+// marked partial instead of failing the whole request (only a missing or unavailable application does).
+// Served by the gateway itself rather than a route, so the rate limiter and the application-service
+// circuit breaker are applied here explicitly.
+@RestController
+public class LoanOverviewController {
+
+    private static final Logger log = LoggerFactory.getLogger(LoanOverviewController.class);
+
+    static final String ROUTE_ID = "loan-overview-aggregate";
+    private static final String APPLICATION_LEG = "application";
+    private static final String RISK_LEG = "riskAssessment";
+
+    private final WebClient applicationServiceClient;
+    private final WebClient riskServiceClient;
+    private final RateLimiter<?> rateLimiter;
+    private final ReactiveCircuitBreaker applicationServiceCircuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Duration applicationTimeout;
+    private final Duration riskTimeout;
+
+    public LoanOverviewController(WebClient.Builder webClientBuilder,
+                                  RateLimiter<?> rateLimiter,
+                                  ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${APPLICATION_SERVICE_URL:http://localhost:3000}") String applicationServiceUrl,
+                                  @Value("${RISK_SERVICE_URL:http://localhost:8082}") String riskServiceUrl,
+                                  @Value("${gateway.aggregation.application-timeout:1s}") Duration applicationTimeout,
+                                  @Value("${gateway.aggregation.risk-timeout:800ms}") Duration riskTimeout) {
+        this.applicationServiceClient = webClientBuilder.clone().baseUrl(applicationServiceUrl).build();
+        this.riskServiceClient = webClientBuilder.clone().baseUrl(riskServiceUrl).build();
+        this.rateLimiter = rateLimiter;
+        this.applicationServiceCircuitBreaker = circuitBreakerFactory.create("applicationServiceCircuitBreaker");
+        this.meterRegistry = meterRegistry;
+        this.applicationTimeout = applicationTimeout;
+        this.riskTimeout = riskTimeout;
+    }
+
+    @GetMapping("/api/aggregate/loan-applications/{applicationId}")
+    public Mono<ResponseEntity<LoanOverview>> getLoanOverview(@PathVariable String applicationId,
+                                                              @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                              Mono<Principal> principal) {
+        return principal.map(Principal::getName)
+                .defaultIfEmpty("anonymous")
+                .flatMap(name -> rateLimiter.isAllowed(ROUTE_ID, name))
+                .flatMap(limit -> {
+                    if (!limit.isAllowed()) {
+                        ResponseEntity.BodyBuilder tooManyRequests = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+                        limit.getHeaders().forEach(tooManyRequests::header);
+                        return Mono.just(tooManyRequests.<LoanOverview>build());
+                    }
+                    Mono<Leg> application = leg(APPLICATION_LEG, applicationTimeout, applicationServiceCircuitBreaker.run(
+                            fetch(applicationServiceClient, "/api/loans/applications/{id}", applicationId, authorization)));
+                    Mono<Leg> risk = leg(RISK_LEG, riskTimeout,
+                            fetch(riskServiceClient, "/api/risk/assessments/{id}", applicationId, authorization));
+                    return Mono.zip(application, risk)
+                            .map(legs -> merge(applicationId, legs.getT1(), legs.getT2()));
+                });
+    }
+
+    private static ResponseEntity<LoanOverview> merge(String applicationId, Leg application, Leg risk) {
+        Map<String, String> legStatus = new LinkedHashMap<>();
+        legStatus.put(APPLICATION_LEG, application.status());
+        legStatus.put(RISK_LEG, risk.status());
+        boolean partial = !Leg.OK.equals(application.status()) || !Leg.OK.equals(risk.status());
+        LoanOverview overview = new LoanOverview(applicationId, application.body(), risk.body(), partial, legStatus);
+
+        // The risk decision is optional for the screen (it may not be scored yet); the application is not
+        return switch (application.status()) {
+            case Leg.OK -> ResponseEntity.ok(overview);
+            case Leg.NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(overview);
+            case Leg.TIMEOUT -> ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(overview);
+            default -> ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(overview);
+        };
+    }
+
+    private static Mono<JsonNode> fetch(WebClient client, String uri, String applicationId, String authorization) {
+        return client.get()
+                .uri(uri, applicationId)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                // Not a failure (the risk decision may not exist yet), so it mustn't count against the circuit breaker
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    // Never fails: errors and timeouts become the leg's status
+    private Mono<Leg> leg(String name, Duration timeout, Mono<JsonNode> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return call
+                .timeout(timeout)
+                .map(body -> new Leg(Leg.OK, body))
+                .defaultIfEmpty(new Leg(Leg.NOT_FOUND, null))
+                .onErrorResume(e -> {
+                    String status = e instanceof TimeoutException ? Leg.TIMEOUT : Leg.ERROR;
+                    log.warn("Aggregation leg {} failed with {}: {}", name, status, e.getMessage());
+                    return Mono.just(new Leg(status, null));
+                })
+                .doOnNext(leg -> sample.stop(Timer.builder("gateway.aggregation.leg")
+                        .tag("leg", name)
+                        .tag("status", leg.status())
+                        .description("Latency of each downstream call of the loan overview aggregate")
+                        .register(meterRegistry)));
+    }
+
+    private record Leg(String status, JsonNode body) {
+        static final String OK = "OK";
+        static final String NOT_FOUND = "NOT_FOUND";
+        static final String TIMEOUT = "TIMEOUT";
+        static final String ERROR = "ERROR";
+    }
+
+    public record LoanOverview(String applicationId, JsonNode application, JsonNode riskAssessment,
+                               boolean partial, Map<String, String> legs) {}
+}
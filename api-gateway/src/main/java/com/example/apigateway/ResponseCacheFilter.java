@@ -0,0 +1,241 @@
+package com.example.apigateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Short-lived cache of GET responses for polled routes (e.g. GET /api/loans/applications/{id}), keyed by
+// route, authenticated principal and URI, so one user's cached response is never served to another.
+// A hit is answered without the rate limiter or the upstream hop; every cached response carries a strong
+// ETag (SHA-256 of the body) and a matching If-None-Match is answered with 304 Not Modified.
+// Runs right before NettyWriteResponseFilter so it can capture the upstream body, and before the
+// route filters (RequestRateLimiter, CircuitBreaker). Writes through a cached route invalidate the entries
+// of the same path.
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final Cache<CacheKey, CachedResponse> cache;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<String> routeIds;
+    private final int maxBodyBytes;
+    private final Duration ttl;
+    private final Map<String, RouteCounters> routeCounters = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry,
+                               @Value("${gateway.response-cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.response-cache.route-ids:application-service-route}") List<String> routeIds,
+                               @Value("${gateway.response-cache.ttl:2s}") Duration ttl,
+                               @Value("${gateway.response-cache.max-entries:10000}") long maxEntries,
+                               @Value("${gateway.response-cache.max-body-bytes:65536}") int maxBodyBytes) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.routeIds = routeIds;
+        this.ttl = ttl;
+        this.maxBodyBytes = maxBodyBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        routeIds.forEach(this::countersFor);
+
+        Gauge.builder("gateway.response_cache.size", cache, Cache::estimatedSize)
+                .description("Responses currently held in the gateway response cache")
+                .register(meterRegistry);
+        log.info("Gateway response cache {} for routes {} (ttl {}, max {} entries)", enabled ? "enabled" : "disabled", routeIds, ttl, maxEntries);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || !routeIds.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            if (request.getMethod() != HttpMethod.HEAD && request.getMethod() != HttpMethod.OPTIONS) {
+                invalidatePath(route.getId(), request.getPath().value());
+            }
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(principal -> Optional.of(new CacheKey(route.getId(), principal.getName(), request.getURI().getRawPath(), request.getURI().getRawQuery())))
+                // No authenticated principal: nothing to key the entry on, pass through uncached
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(key -> key.isPresent() ? serve(exchange, chain, key.get()) : chain.filter(exchange));
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, GatewayFilterChain chain, CacheKey key) {
+        CachedResponse cached = cache.getIfPresent(key);
+        RouteCounters counters = countersFor(key.routeId());
+        if (cached != null) {
+            counters.hits().increment();
+            return writeCached(exchange, cached);
+        }
+        counters.misses().increment();
+        return chain.filter(exchange.mutate().response(new CachingResponse(exchange, key)).build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.etag())) {
+            countersFor(cached.routeId()).notModified().increment();
+            return notModified(response);
+        }
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static Mono<Void> notModified(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        return response.setComplete();
+    }
+
+    private void invalidatePath(String routeId, String path) {
+        cache.asMap().keySet().removeIf(key -> key.routeId().equals(routeId) && key.path().startsWith(path));
+    }
+
+    // If-None-Match uses the weak comparison (RFC 9110 13.1.2), so W/"x" matches "x"
+    private static boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        String opaqueTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return ifNoneMatch.stream().anyMatch(tag -> tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaqueTag));
+    }
+
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private RouteCounters countersFor(String routeId) {
+        return routeCounters.computeIfAbsent(routeId, id -> {
+            RouteCounters counters = new RouteCounters(
+                    counter(id, "hit"), counter(id, "miss"), counter(id, "not_modified"));
+            Gauge.builder("gateway.response_cache.hit_ratio", counters, RouteCounters::hitRatio)
+                    .tag("route", id)
+                    .description("Share of cacheable GET requests answered from the gateway response cache")
+                    .register(meterRegistry);
+            return counters;
+        });
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder("gateway.response_cache.requests")
+                .tag("route", routeId)
+                .tag("result", result)
+                .description("Cacheable GET requests by cache result (not_modified is a subset of hit)")
+                .register(meterRegistry);
+    }
+
+    // Captures a successful upstream body into the cache and adds the ETag before the headers are committed
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final CacheKey key;
+
+        CachingResponse(ServerWebExchange exchange, CacheKey key) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != HttpStatus.OK.value() || !isCacheable(getHeaders())) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        String etag = getHeaders().getETag() != null ? getHeaders().getETag() : strongEtag(bytes);
+                        getHeaders().setETag(etag);
+                        getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                        getHeaders().setCacheControl("private, max-age=" + ttl.toSeconds());
+                        HttpHeaders cachedHeaders = new HttpHeaders();
+                        cachedHeaders.putAll(getHeaders());
+                        cache.put(key, new CachedResponse(key.routeId(), status, HttpHeaders.readOnlyHttpHeaders(cachedHeaders), bytes, etag));
+
+                        if (matchesIfNoneMatch(exchange.getRequest(), etag)) {
+                            countersFor(key.routeId()).notModified().increment();
+                            return notModified(getDelegate());
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        // Only bodies of a known, small size are buffered (document downloads stream through untouched)
+        private boolean isCacheable(HttpHeaders headers) {
+            long contentLength = headers.getContentLength();
+            String cacheControl = headers.getCacheControl();
+            return contentLength >= 0 && contentLength <= maxBodyBytes
+                    && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                    && (cacheControl == null || !cacheControl.contains("no-store"));
+        }
+    }
+
+    private record CacheKey(String routeId, String principal, String path, String query) {}
+
+    private record CachedResponse(String routeId, HttpStatusCode status, HttpHeaders headers, byte[] body, String etag) {}
+
+    private record RouteCounters(Counter hits, Counter misses, Counter notModified) {
+        double hitRatio() {
+            double total = hits.count() + misses.count();
+            return total > 0 ? hits.count() / total : 0;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.apigateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HybridTokenBucketRateLimiterTest {
+
+    private final ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+
+    @Test
+    void concurrentRequests_neverTakeMoreThanTheBucketHolds() throws InterruptedException {
+        HybridTokenBucketRateLimiter limiter = limiter(0, 200);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.isAllowed("route", "alice").block().isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(200, allowed.get());
+        assertEquals(200, limiter.unsyncedTokens());
+    }
+
+    @Test
+    void defaultFilterArgs_overrideThePropertyDefaults() {
+        HybridTokenBucketRateLimiter limiter = limiter(0, 100);
+        limiter.getConfig().put(RouteDefinitionRouteLocator.DEFAULT_FILTERS,
+                new HybridTokenBucketRateLimiter.Config().setReplenishRate(0).setBurstCapacity(5));
+
+        assertEquals("5", limiter.isAllowed("route", "alice").block().getHeaders().get(RedisRateLimiter.BURST_CAPACITY_HEADER));
+    }
+
+    @Test
+    void sync_debitsWhatOtherInstancesConsumed() {
+        HybridTokenBucketRateLimiter limiter = limiter(0, 100);
+        consume(limiter, 10);
+        // 10 of ours plus 40 from other instances in this window
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenAnswer(invocation -> Flux.just(List.of(50L)));
+
+        limiter.syncWithRedis();
+
+        assertEquals(0, limiter.unsyncedTokens());
+        assertFalse(limiter.isLocalOnly());
+        assertEquals("49", limiter.isAllowed("route", "alice").block().getHeaders().get(RedisRateLimiter.REMAINING_HEADER));
+    }
+
+    @Test
+    void timedOutSync_putsTheDrainedTokensBack_andGoesLocalOnly() {
+        HybridTokenBucketRateLimiter limiter = limiter(0, 100);
+        consume(limiter, 10);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenAnswer(invocation -> Flux.never());
+
+        limiter.syncWithRedis();
+
+        assertEquals(10, limiter.unsyncedTokens());
+        assertTrue(limiter.isLocalOnly());
+        // Nothing was debited locally
+        assertEquals("89", limiter.isAllowed("route", "alice").block().getHeaders().get(RedisRateLimiter.REMAINING_HEADER));
+    }
+
+    private HybridTokenBucketRateLimiter limiter(int replenishRate, int burstCapacity) {
+        return new HybridTokenBucketRateLimiter(redisTemplate, mock(ConfigurationService.class), new SimpleMeterRegistry(),
+                replenishRate, burstCapacity, Duration.ofHours(1), Duration.ofMillis(50), Duration.ofSeconds(10), 1000, Duration.ofMinutes(5));
+    }
+
+    private static void consume(HybridTokenBucketRateLimiter limiter, int requests) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.isAllowed("route", "alice").block().isAllowed());
+        }
+    }
+}
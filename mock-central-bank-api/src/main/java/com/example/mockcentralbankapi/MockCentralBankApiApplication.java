@@ -8,15 +8,19 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @SpringBootApplication
 public class MockCentralBankApiApplication {
 
+    private static final int MAX_BULK_SIZE = 100;
+
     public static void main(String[] args) {
         SpringApplication.run(MockCentralBankApiApplication.class, args);
     }
@@ -45,9 +49,43 @@ public class MockCentralBankApiApplication {
 
             return Mono.delay(Duration.ofMillis(delayMillis))
                     .then(ServerResponse.ok().bodyValue(response));
-        });
+        }).andRoute(POST("/api/credit-check/bulk"), request -> request.bodyToMono(BulkCreditCheckRequest.class)
+                .flatMap(bulkRequest -> {
+                    List<String> customerIds = bulkRequest.customerIds() == null ? List.of() : bulkRequest.customerIds();
+                    if (customerIds.isEmpty() || customerIds.size() > MAX_BULK_SIZE) {
+                        return ServerResponse.badRequest().bodyValue("customerIds must contain 1-" + MAX_BULK_SIZE + " entries");
+                    }
+                    Random random = ThreadLocalRandom.current();
+
+                    // One round trip for the whole batch, a little slower than a single lookup
+                    long delayMillis = random.nextInt(4000) + 1000 + 10L * customerIds.size();
+
+                    // Whole-request failure (5%)
+                    if (random.nextDouble() < 0.05) {
+                        return Mono.delay(Duration.ofMillis(delayMillis))
+                                .then(ServerResponse.status(500).bodyValue("Central Bank API bulk error"));
+                    }
+
+                    // Per-customer failures (10%) are reported in the item, the rest of the batch still succeeds
+                    List<BulkCreditCheckResult> results = customerIds.stream()
+                            .map(customerId -> random.nextDouble() < 0.1
+                                    ? new BulkCreditCheckResult(customerId, "ERROR", 0, 0, null, "Central Bank API Error for customer: " + customerId)
+                                    : new BulkCreditCheckResult(customerId, "OK", random.nextInt(500) + 300, random.nextInt(5),
+                                            "Mock Payment History for " + customerId, null))
+                            .toList();
+
+                    return Mono.delay(Duration.ofMillis(delayMillis))
+                            .then(ServerResponse.ok().bodyValue(new BulkCreditCheckResponse(results)));
+                }));
     }
 
     // Simple DTO for the response
     private record CreditCheckResponse(int creditScore, int outstandingLoans, String paymentHistory) {}
+
+    private record BulkCreditCheckRequest(List<String> customerIds) {}
+
+    private record BulkCreditCheckResult(String customerId, String status, int creditScore, int outstandingLoans,
+                                         String paymentHistory, String error) {}
+
+    private record BulkCreditCheckResponse(List<BulkCreditCheckResult> results) {}
 }
@@ -28,35 +28,173 @@ CREATE TABLE application_events (
 );
 
 -- Risk assessments table
+-- Range-partitioned by month on assessment_date. A partitioned table's primary key
+-- has to contain the partition key, hence (id, assessment_date).
 CREATE TABLE risk_assessments (
-    id UUID PRIMARY KEY,
+    id UUID NOT NULL,
     application_id UUID NOT NULL,
-    assessment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    customer_id VARCHAR(50),
+    assessment_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     credit_score INTEGER,
     debt_ratio DECIMAL(5,2),
     risk_score DECIMAL(5,2),
     decision VARCHAR(20),
     decision_reason TEXT,
-    processing_time_ms INTEGER
-);
+    processing_time_ms INTEGER,
+    -- Inputs of the last evaluation, kept so a reassessment only recomputes what changed
+    loan_amount DECIMAL(12,2),
+    income DECIMAL(12,2),
+    loan_purpose VARCHAR(100),
+    initial_score_weight DOUBLE PRECISION,
+    updated_at TIMESTAMP,
+    credit_report_stale BOOLEAN NOT NULL DEFAULT FALSE, -- Scored with a last good credit report during a Central Bank outage
+    PRIMARY KEY (id, assessment_date)
+) PARTITION BY RANGE (assessment_date);
+
+-- Indexes declared on the parent are created locally on every partition
+CREATE INDEX idx_risk_assessments_application_id ON risk_assessments (application_id);
+-- Keyset paging over the assessment history, newest or oldest first (cache warm-up, bulk re-scoring)
+CREATE INDEX idx_risk_assessments_assessment_date_id ON risk_assessments (assessment_date, id);
 
 -- Risk factors table
+-- Partitioned like risk_assessments so retention can drop both in step and the
+-- foreign key (which must include the partition key) stays partition-wise.
 CREATE TABLE risk_factors (
-    id UUID PRIMARY KEY,
-    assessment_id UUID REFERENCES risk_assessments(id),
+    id UUID NOT NULL,
+    assessment_id UUID NOT NULL,
+    assessment_date TIMESTAMP NOT NULL,
     factor_name VARCHAR(100),
-    factor_value DECIMAL(10,2),
+    factor_value DECIMAL(14,4),
     weight DECIMAL(3,2),
-    contribution DECIMAL(5,2)
-);
+    contribution DECIMAL(5,2),
+    computed_at TIMESTAMP, -- When factor_value was last (re)computed; drives expiry on reassessment
+    PRIMARY KEY (id, assessment_date),
+    FOREIGN KEY (assessment_id, assessment_date) REFERENCES risk_assessments (id, assessment_date) ON DELETE CASCADE
+) PARTITION BY RANGE (assessment_date);
+
+CREATE INDEX idx_risk_factors_assessment_id ON risk_factors (assessment_id);
 
 -- External api calls log
+-- One row per Central Bank call (including fallbacks), partitioned by month on request_time
 CREATE TABLE external_api_calls (
-    id UUID PRIMARY KEY,
+    id UUID NOT NULL,
     application_id UUID,
     api_name VARCHAR(50),
-    request_time TIMESTAMP,
+    request_time TIMESTAMP NOT NULL,
     response_time TIMESTAMP,
     status_code INTEGER,
-    cached BOOLEAN DEFAULT FALSE
+    cached BOOLEAN DEFAULT FALSE,
+    PRIMARY KEY (id, request_time)
+) PARTITION BY RANGE (request_time);
+
+CREATE INDEX idx_external_api_calls_application_id ON external_api_calls (application_id);
+
+-- Progress of bulk re-scoring runs (BulkRescoringJob). The keyset position is the last
+-- (assessment_date, id) whose batch was committed, so a restarted job resumes right after it.
+CREATE TABLE rescoring_checkpoints (
+    job_id VARCHAR(100) PRIMARY KEY,
+    policy_version VARCHAR(200) NOT NULL,
+    last_assessment_date TIMESTAMP,
+    last_assessment_id UUID,
+    rows_scanned BIGINT NOT NULL DEFAULT 0,
+    rows_updated BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
+
+-- Creates the monthly partitions <parent>_pYYYY_MM from the current month up to
+-- p_months_ahead months in the future. Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(p_parent TEXT, p_months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_month DATE := date_trunc('month', CURRENT_DATE)::DATE;
+    v_last DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => p_months_ahead))::DATE;
+    v_name TEXT;
+    v_created INTEGER := 0;
+BEGIN
+    WHILE v_month <= v_last LOOP
+        v_name := p_parent || '_p' || to_char(v_month, 'YYYY_MM');
+        IF to_regclass(v_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           v_name, p_parent, v_month, (v_month + INTERVAL '1 month')::DATE);
+            v_created := v_created + 1;
+        END IF;
+        v_month := (v_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN v_created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches p_partition from p_parent if it is still attached, then drops it (p_drop) or keeps it as an
+-- archive table. An archive table loses its foreign keys: a detached partition keeps its FK to the live
+-- parent, which would block detaching the referenced partition later on.
+CREATE OR REPLACE FUNCTION detach_expired_partition(p_parent TEXT, p_partition TEXT, p_drop BOOLEAN)
+RETURNS VOID AS $$
+DECLARE
+    v_fk RECORD;
+BEGIN
+    IF to_regclass(p_partition) IS NULL THEN
+        RETURN;
+    END IF;
+    IF EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = to_regclass(p_partition) AND inhparent = to_regclass(p_parent)) THEN
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p_parent, p_partition);
+    END IF;
+    IF p_drop THEN
+        EXECUTE format('DROP TABLE %I', p_partition);
+    ELSE
+        FOR v_fk IN
+            SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(p_partition) AND contype = 'f'
+        LOOP
+            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', p_partition, v_fk.conname);
+        END LOOP;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches (and optionally drops) every monthly partition of p_parent that lies entirely
+-- before the retention cutoff. Retention never issues DELETEs against the live table.
+-- The same month's partitions of tables referencing p_parent (risk_factors -> risk_assessments) are
+-- detached first, in both modes, since a partition can't be detached while referencing rows point at it.
+-- Returns the number of p_parent partitions removed.
+CREATE OR REPLACE FUNCTION drop_expired_partitions(p_parent TEXT, p_retain_months INTEGER, p_drop BOOLEAN DEFAULT TRUE)
+RETURNS INTEGER AS $$
+DECLARE
+    v_cutoff DATE := (date_trunc('month', CURRENT_DATE) - make_interval(months => p_retain_months))::DATE;
+    v_partition RECORD;
+    v_child RECORD;
+    v_removed INTEGER := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname AS name
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = p_parent
+          AND c.relname ~ ('^' || p_parent || '_p[0-9]{4}_[0-9]{2}$')
+          AND to_date(right(c.relname, 7), 'YYYY_MM') < v_cutoff
+        ORDER BY c.relname
+    LOOP
+        FOR v_child IN
+            SELECT DISTINCT r.relname AS parent
+            FROM pg_constraint con
+            JOIN pg_class r ON r.oid = con.conrelid
+            WHERE con.contype = 'f'
+              AND con.conparentid = 0
+              AND con.confrelid = to_regclass(p_parent)
+              AND r.relkind = 'p'
+        LOOP
+            -- Same _pYYYY_MM suffix as the parent's partition
+            PERFORM detach_expired_partition(v_child.parent, v_child.parent || right(v_partition.name, 9), p_drop);
+        END LOOP;
+        PERFORM detach_expired_partition(p_parent, v_partition.name, p_drop);
+        v_removed := v_removed + 1;
+    END LOOP;
+    RETURN v_removed;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Initial partitions; risk-assessment-service keeps creating future ones (PartitionMaintenanceService)
+SELECT ensure_monthly_partitions('risk_assessments', 3);
+SELECT ensure_monthly_partitions('risk_factors', 3);
+SELECT ensure_monthly_partitions('external_api_calls', 3);
@@ -0,0 +1,190 @@
+package com.example.riskassessmentservice.cache;
+
+import com.example.riskassessmentservice.client.CentralBankApiClient;
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse;
+import com.example.riskassessmentservice.model.RiskAssessment;
+import com.example.riskassessmentservice.repository.RiskAssessmentRepository;
+import com.example.riskassessmentservice.service.RiskAssessmentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Warms the risk_assessment:* and central_bank_response:* keyspaces after a deploy or Redis failover.
+// Streams the most recent assessments from Postgres in keyset pages on (assessment_date, id), so every page
+// is an index range scan instead of an OFFSET over everything before it, and writes them with SET NX (issued
+// concurrently, so Lettuce pipelines them on one connection). Credit reports are rebuilt from
+// assessments whose Central Bank call is still within the report TTL, never from credit_report_stale ones.
+// Runs as an ApplicationRunner: Spring Boot only switches readiness to ACCEPTING_TRAFFIC after all
+// runners return, so the readiness probe stays down until warm-up completes or the time budget runs out.
+// The Kafka listeners that score or prefetch only start after all runners (KafkaListenerStartupRunner), so
+// warm-up doesn't compete with live consumption for Postgres, Redis and the Central Bank API.
+@Component
+@Profile("!read-pod")
+@Order(1)
+public class CacheWarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupRunner.class);
+
+    private static final int WRITE_CONCURRENCY = 64;
+
+    private final RiskAssessmentRepository riskAssessmentRepository;
+    private final RiskAssessmentService riskAssessmentService;
+    private final CentralBankApiClient centralBankApiClient;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler persistenceScheduler;
+
+    private final boolean enabled;
+    private final int maxAssessments;
+    private final int batchSize;
+    private final Duration timeBudget;
+
+    private final AtomicLong assessmentsLoaded = new AtomicLong();
+    private final AtomicLong assessmentsCached = new AtomicLong();
+    private final AtomicLong creditReportsCached = new AtomicLong();
+    private final AtomicInteger inProgress = new AtomicInteger();
+
+    public CacheWarmupRunner(RiskAssessmentRepository riskAssessmentRepository,
+                             RiskAssessmentService riskAssessmentService,
+                             CentralBankApiClient centralBankApiClient,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("persistenceScheduler") Scheduler persistenceScheduler,
+                             @Value("${risk.cache.warmup.enabled:true}") boolean enabled,
+                             @Value("${risk.cache.warmup.max-assessments:5000}") int maxAssessments,
+                             @Value("${risk.cache.warmup.batch-size:500}") int batchSize,
+                             @Value("${risk.cache.warmup.time-budget:30s}") Duration timeBudget) {
+        this.riskAssessmentRepository = riskAssessmentRepository;
+        this.riskAssessmentService = riskAssessmentService;
+        this.centralBankApiClient = centralBankApiClient;
+        this.meterRegistry = meterRegistry;
+        this.persistenceScheduler = persistenceScheduler;
+        this.enabled = enabled;
+        this.maxAssessments = maxAssessments;
+        this.batchSize = batchSize;
+        this.timeBudget = timeBudget;
+
+        meterRegistry.gauge("cache.warmup.assessments.loaded", assessmentsLoaded);
+        meterRegistry.gauge("cache.warmup.assessments.cached", assessmentsCached);
+        meterRegistry.gauge("cache.warmup.credit_reports.cached", creditReportsCached);
+        meterRegistry.gauge("cache.warmup.in_progress", inProgress);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Cache warm-up disabled");
+            return;
+        }
+        log.info("Starting cache warm-up: up to {} assessments in batches of {}, time budget {}", maxAssessments, batchSize, timeBudget);
+        inProgress.set(1);
+        long start = System.nanoTime();
+        Set<String> warmedCustomers = new HashSet<>(); // Only touched from the sequential concatMap below
+        String outcome = "completed";
+        try {
+            Boolean finished = loadPage(null)
+                .expand(page -> page.next() != null ? loadPage(page.next()) : Mono.empty())
+                .concatMap(page -> warmBatch(page.assessments(), warmedCustomers))
+                .then(Mono.just(true))
+                .take(timeBudget)
+                .defaultIfEmpty(false)
+                .block();
+            if (!Boolean.TRUE.equals(finished)) {
+                outcome = "budget_exhausted";
+            }
+        } catch (Exception e) {
+            outcome = "failed";
+            log.error("Cache warm-up failed, continuing with a partially warm cache: {}", e.getMessage());
+        } finally {
+            inProgress.set(0);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("cache.warmup.duration")
+            .tag("outcome", outcome)
+            .description("Time spent warming the Redis caches at startup")
+            .register(meterRegistry)
+            .record(Duration.ofNanos(elapsedNanos));
+        log.info("Cache warm-up {} in {} ms: {} assessments loaded, {} assessments and {} credit reports cached",
+                outcome, Duration.ofNanos(elapsedNanos).toMillis(), assessmentsLoaded.get(), assessmentsCached.get(), creditReportsCached.get());
+    }
+
+    // The page after the given cursor (the oldest row of the previous page), or the newest page for null
+    private Mono<Page> loadPage(Cursor after) {
+        return Mono.fromCallable(() -> {
+            int limit = (int) Math.min(batchSize, maxAssessments - assessmentsLoaded.get());
+            if (limit <= 0) {
+                return new Page(List.of(), null);
+            }
+            List<UUID> ids = after == null
+                    ? riskAssessmentRepository.findRecentIds(limit)
+                    : riskAssessmentRepository.findRecentIdsBefore(after.assessmentDate(), after.id(), limit);
+            if (ids.isEmpty()) {
+                return new Page(List.of(), null);
+            }
+            List<RiskAssessment> batch = riskAssessmentRepository.findByIdIn(ids).stream()
+                .sorted(Comparator.comparing(RiskAssessment::getAssessmentDate).reversed())
+                .toList();
+            assessmentsLoaded.addAndGet(batch.size());
+            // Cursor from the query's own ordering; Postgres and java.util.UUID order UUIDs differently
+            UUID lastId = ids.get(ids.size() - 1);
+            Cursor next = ids.size() < limit ? null : batch.stream()
+                .filter(assessment -> assessment.getId().equals(lastId))
+                .findFirst()
+                .map(assessment -> new Cursor(assessment.getAssessmentDate(), lastId))
+                .orElse(null);
+            return new Page(batch, next);
+        }).subscribeOn(persistenceScheduler);
+    }
+
+    private Mono<Void> warmBatch(List<RiskAssessment> batch, Set<String> warmedCustomers) {
+        // Newest first, so the first assessment seen for a customer carries their latest credit score. Stale
+        // ones were scored with an older report during an outage; rebuilding from them would stamp that report
+        // with the assessment's date and serve it as fresh.
+        List<RiskAssessment> creditReportSources = batch.stream()
+            .filter(assessment -> assessment.getCustomerId() != null && !assessment.isCreditReportStale()
+                    && assessment.getCreditScore() != null && assessment.getCreditScore() > 0)
+            .filter(assessment -> warmedCustomers.add(assessment.getCustomerId()))
+            .toList();
+
+        Mono<Void> assessments = Flux.fromIterable(batch)
+            .flatMap(riskAssessmentService::primeCache, WRITE_CONCURRENCY)
+            .filter(Boolean::booleanValue)
+            .doOnNext(stored -> assessmentsCached.incrementAndGet())
+            .then();
+
+        Mono<Void> creditReports = Flux.fromIterable(creditReportSources)
+            .flatMap(assessment -> centralBankApiClient.primeCache(
+                    new CentralBankCreditResponse(assessment.getCustomerId(), assessment.getCreditScore(), "WARMED_FROM_ASSESSMENT",
+                            "Rebuilt from risk assessment " + assessment.getId()),
+                    assessment.getAssessmentDate()), WRITE_CONCURRENCY)
+            .filter(Boolean::booleanValue)
+            .doOnNext(stored -> creditReportsCached.incrementAndGet())
+            .then();
+
+        return Mono.when(assessments, creditReports);
+    }
+
+    private record Cursor(LocalDateTime assessmentDate, UUID id) {}
+
+    private record Page(List<RiskAssessment> assessments, Cursor next) {}
+}
@@ -0,0 +1,140 @@
+package com.example.riskassessmentservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Stampede protection for the Redis-backed caches.
+// - Probabilistic early expiration (XFetch): on a cache hit the caller asks shouldRefreshEarly with the
+//   key's remaining TTL. The probability of refreshing grows as expiry approaches and with the observed
+//   recompute time of the keyspace, so a popular key is refreshed before it actually expires.
+// - The refresh runs in the background, single-flight per key in this pod and across pods through a
+//   short Redis lock, while every caller keeps getting the still-valid cached value. The lock is released
+//   (compare-and-delete on its token) when the refresh ends; its TTL only covers a pod dying mid-refresh.
+// - coalesce() merges concurrent misses for the same key into one load.
+@Component
+@Profile("!read-pod")
+public class EarlyRefreshCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(EarlyRefreshCoordinator.class);
+
+    private static final String LOCK_KEY_PREFIX = "refresh_lock:";
+    private static final double RECOMPUTE_EWMA_ALPHA = 0.2;
+    // Deletes the lock only if it still holds our token, i.e. it hasn't expired and been taken by another pod
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final double beta;
+    private final Duration lockTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, Mono<?>> loadsInFlight = new ConcurrentHashMap<>();
+    // Exponentially weighted recompute time per keyspace, in nanoseconds (the XFetch "delta")
+    private final ConcurrentMap<String, AtomicLong> recomputeNanos = new ConcurrentHashMap<>();
+
+    public EarlyRefreshCoordinator(ReactiveStringRedisTemplate redisTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${risk.cache.early-refresh.beta:1.0}") double beta,
+                                   @Value("${risk.cache.early-refresh.lock-ttl:30s}") Duration lockTtl) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.beta = beta;
+        this.lockTtl = lockTtl;
+    }
+
+    // XFetch: refresh when -delta * beta * ln(rand) >= remaining TTL. A zero TTL means the key has no expiry.
+    public boolean shouldRefreshEarly(String keyspace, Duration ttlRemaining, Duration defaultRecomputeTime) {
+        if (ttlRemaining == null || ttlRemaining.isZero() || ttlRemaining.isNegative()) {
+            return false;
+        }
+        long delta = recomputeNanos.computeIfAbsent(keyspace, k -> new AtomicLong(defaultRecomputeTime.toNanos())).get();
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        return -delta * beta * Math.log(random) >= ttlRemaining.toNanos();
+    }
+
+    public void refreshInBackground(String keyspace, String key, Supplier<Mono<?>> refresher) {
+        if (!refreshesInFlight.add(key)) {
+            refreshCounter(keyspace, "skipped_in_flight").increment();
+            return;
+        }
+        String lockKey = LOCK_KEY_PREFIX + key;
+        String token = instanceId + ":" + UUID.randomUUID();
+        redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl)
+            .flatMap(acquired -> {
+                if (!Boolean.TRUE.equals(acquired)) {
+                    // Another pod is already refreshing this key
+                    refreshCounter(keyspace, "skipped_locked").increment();
+                    return Mono.<Void>empty();
+                }
+                log.info("Refreshing cache key {} ahead of expiry", key);
+                refreshCounter(keyspace, "triggered").increment();
+                long start = System.nanoTime();
+                return refresher.get()
+                    .then()
+                    .doOnSuccess(done -> {
+                        recordRecomputeTime(keyspace, System.nanoTime() - start);
+                        refreshCounter(keyspace, "succeeded").increment();
+                    })
+                    .onErrorResume(e -> releaseLock(lockKey, token).then(Mono.error(e)))
+                    .then(releaseLock(lockKey, token));
+            })
+            .doOnError(e -> {
+                log.warn("Early refresh of cache key {} failed, cached value stays until it expires: {}", key, e.getMessage());
+                refreshCounter(keyspace, "failed").increment();
+            })
+            .onErrorResume(e -> Mono.empty())
+            .doFinally(signal -> refreshesInFlight.remove(key))
+            .subscribe();
+    }
+
+    private Mono<Void> releaseLock(String lockKey, String token) {
+        return redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), List.of(token))
+            .then()
+            .onErrorResume(e -> {
+                log.warn("Failed to release refresh lock {}, it expires with its TTL: {}", lockKey, e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    // Shares one in-flight load between all concurrent callers missing the same key
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(String key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> (Mono<T>) loadsInFlight.computeIfAbsent(key, k -> loader.get()
+                .doFinally(signal -> loadsInFlight.remove(k))
+                .cache()));
+    }
+
+    public void recordRecomputeTime(String keyspace, long nanos) {
+        recomputeNanos.computeIfAbsent(keyspace, k -> new AtomicLong(nanos))
+            .updateAndGet(previous -> (long) (previous * (1 - RECOMPUTE_EWMA_ALPHA) + nanos * RECOMPUTE_EWMA_ALPHA));
+    }
+
+    private Counter refreshCounter(String keyspace, String outcome) {
+        return Counter.builder("cache.early_refresh")
+            .tag("keyspace", keyspace)
+            .tag("outcome", outcome)
+            .description("Refresh-ahead activity of the probabilistic early expiration")
+            .register(meterRegistry);
+    }
+}
@@ -1,19 +1,21 @@
 package com.example.riskassessmentservice.client;
 
+import com.example.riskassessmentservice.cache.EarlyRefreshCoordinator;
 import com.example.riskassessmentservice.model.ExternalApiCall;
-import com.example.riskassessmentservice.model.CentralBankCreditResponse;
 import com.example.riskassessmentservice.repository.ExternalApiCallRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -22,36 +24,83 @@ import java.util.UUID;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.data.domain.Range;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 
 @Component
+@Profile("!read-pod")
 public class CentralBankApiClient {
 
     private static final Logger log = LoggerFactory.getLogger(CentralBankApiClient.class);
     private final WebClient centralBankWebClient;
     private final ExternalApiCallRepository externalApiCallRepository;
     private final ReactiveRedisTemplate<String, CentralBankCreditResponse> redisTemplate;
+    private final ReactiveRedisTemplate<String, LastGoodCreditReport> lastGoodReportRedisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final CreditCheckBatcher creditCheckBatcher;
+    private final boolean batchingEnabled;
+    private final Duration staleReportMaxAge;
     private final MeterRegistry meterRegistry;
+    private final EarlyRefreshCoordinator earlyRefreshCoordinator;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Scheduler persistenceScheduler;
 
     private static final String CENTRAL_BANK_CACHE_KEY_PREFIX = "central_bank_response:";
     private static final Duration CENTRAL_BANK_CACHE_TTL = Duration.ofHours(1);
+    private static final String CENTRAL_BANK_KEYSPACE = "central_bank_response";
+    private static final String RESILIENCE_INSTANCE = "centralBankApi";
+    private static final Duration CENTRAL_BANK_DEFAULT_RECOMPUTE_TIME = Duration.ofSeconds(3); // Initial XFetch delta (mock API takes 1-5s)
+    private static final String LAST_GOOD_REPORT_KEY_PREFIX = "central_bank_last_good:";
+    public static final String STATUS_STALE_CACHE = "STALE_CACHE"; // Last good report served while the API is down
+    private static final String PREFETCHED_KEY = "central_bank_prefetched"; // ZSET customerId -> prefetch time, until first use
+
+    // Result of prefetchCreditReport
+    public enum PrefetchOutcome { FETCHED, ALREADY_CACHED, SKIPPED_UNHEALTHY, FAILED }
 
     private final Counter cacheHitsCounter;
     private final Counter cacheMissesCounter;
     private final Counter apiFallbackCounter;
+    private final Counter staleFallbackCounter;
+    private final Counter prefetchUsedCounter;
 
     // This DTO should match the response from mock-central-bank-api
     public record CentralBankCreditResponse(String customerId, int creditScore, String status, String details) {}
 
+    // Last successful API response per customer, kept well beyond the cache TTL for the fallback
+    public record LastGoodCreditReport(CentralBankCreditResponse report, LocalDateTime fetchedAt) {}
+
     public CentralBankApiClient(@Qualifier("centralBankWebClient") WebClient centralBankWebClient,
                                 ReactiveRedisTemplate<String, CentralBankCreditResponse> redisTemplate,
+                                ReactiveRedisTemplate<String, LastGoodCreditReport> lastGoodReportRedisTemplate,
+                                ReactiveStringRedisTemplate stringRedisTemplate,
+                                CreditCheckBatcher creditCheckBatcher,
                                 ExternalApiCallRepository externalApiCallRepository,
-                                MeterRegistry meterRegistry) {
+                                MeterRegistry meterRegistry,
+                                EarlyRefreshCoordinator earlyRefreshCoordinator,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                BulkheadRegistry bulkheadRegistry,
+                                @Qualifier("persistenceScheduler") Scheduler persistenceScheduler,
+                                @Value("${risk.credit-report.stale-max-age:72h}") Duration staleReportMaxAge,
+                                @Value("${risk.credit-report.batching.enabled:true}") boolean batchingEnabled) {
         this.centralBankWebClient = centralBankWebClient;
         this.redisTemplate = redisTemplate;
+        this.lastGoodReportRedisTemplate = lastGoodReportRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.creditCheckBatcher = creditCheckBatcher;
+        this.batchingEnabled = batchingEnabled;
+        this.staleReportMaxAge = staleReportMaxAge;
         this.externalApiCallRepository = externalApiCallRepository;
         this.meterRegistry = meterRegistry;
+        this.earlyRefreshCoordinator = earlyRefreshCoordinator;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.persistenceScheduler = persistenceScheduler;
 
         this.cacheHitsCounter = Counter.builder("cache.central_bank_api.requests")
             .tag("status", "hit")
@@ -67,9 +116,19 @@ public class CentralBankApiClient {
             .tag("outcome", "fallback")
             .description("Number of times Central Bank API call resulted in a fallback")
             .register(meterRegistry);
+
+        this.staleFallbackCounter = Counter.builder("central_bank_api.calls")
+            .tag("outcome", "stale_fallback")
+            .description("Number of fallbacks answered with the customer's last good credit report")
+            .register(meterRegistry);
+
+        this.prefetchUsedCounter = Counter.builder("central_bank_api.prefetch")
+            .tag("outcome", "used")
+            .description("Number of prefetched credit reports that were later served from the cache to an assessment")
+            .register(meterRegistry);
     }
 
-    @Bulkhead(name = "centralBankApi") // Controls concurrent calls to the entire method (cache + API)
+    // The centralBankApi bulkhead isn't an annotation here: it limits HTTP requests, not lookups (see requestCreditReport)
     @CircuitBreaker(name = "centralBankApi", fallbackMethod = "getCreditReportFallback") // Protects the API call part, via switchIfEmpty
     @Retry(name = "centralBankApi") // Retries the API call part, via switchIfEmpty
     public Mono<CentralBankCreditResponse> getCreditReport(String customerId, UUID applicationId) {
@@ -77,40 +136,39 @@ public class CentralBankApiClient {
 
         // Try to get from cache first
         return redisTemplate.opsForValue().get(cacheKey)
-            .doOnSuccess(response -> {
-                if (response != null) {
-                    log.info("Cache hit for customerId: {}. Serving from cache.", customerId);
-                    cacheHitsCounter.increment();
-                } else {
-                    // This case should ideally not happen if switchIfEmpty is used correctly,
-                    // but as a safeguard or if get() can return Mono<null>.
-                    log.info("Cache returned empty Mono for customerId: {}. Treating as miss.", customerId);
-                    cacheMissesCounter.increment(); 
-                }
+            .doOnNext(response -> {
+                log.info("Cache hit for customerId: {}. Serving from cache.", customerId);
+                cacheHitsCounter.increment();
+                refreshEarlyIfDue(customerId, applicationId, cacheKey);
+                recordPrefetchUse(customerId);
             })
             .switchIfEmpty(Mono.defer(() -> {
                 log.info("Cache miss for customerId: {}. Fetching from Central Bank API.", customerId);
                 cacheMissesCounter.increment();
-                return fetchFromApiAndCache(customerId, applicationId, cacheKey);
+                // Concurrent misses for the same customer share a single API call
+                return earlyRefreshCoordinator.coalesce(cacheKey, () -> fetchFromApiAndCache(customerId, applicationId, cacheKey));
             }));
     }
 
+    // Probabilistic early refresh (XFetch) of a cached credit report. The refresh runs in the background
+    // through the same circuit breaker as getCreditReport (applied programmatically, since the annotations
+    // don't apply to self-invocation); if it fails the cached report is simply kept.
+    private void refreshEarlyIfDue(String customerId, UUID applicationId, String cacheKey) {
+        redisTemplate.getExpire(cacheKey)
+            .filter(ttl -> earlyRefreshCoordinator.shouldRefreshEarly(CENTRAL_BANK_KEYSPACE, ttl, CENTRAL_BANK_DEFAULT_RECOMPUTE_TIME))
+            .subscribe(
+                ttl -> earlyRefreshCoordinator.refreshInBackground(CENTRAL_BANK_KEYSPACE, cacheKey,
+                        () -> fetchFromApiAndCache(customerId, applicationId, cacheKey)
+                            .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE)))),
+                error -> log.warn("Failed to read TTL of cached credit report for customerId: {}: {}", customerId, error.getMessage()));
+    }
+
     // This method contains the original API call logic, now enhanced with caching
     private Mono<CentralBankCreditResponse> fetchFromApiAndCache(String customerId, UUID applicationId, String cacheKey) {
         log.info("Fetching credit report for customerId: {} from Central Bank API (fetchFromApiAndCache)", customerId);
         LocalDateTime requestTime = LocalDateTime.now();
 
-        return centralBankWebClient.get()
-                .uri("/api/credit-check/{customerId}", customerId)
-                .retrieve()
-                .onStatus(HttpStatus::isError, clientResponse -> {
-                    log.error("Error from Central Bank API: Status = {}, Body = {}", 
-                              clientResponse.statusCode(), 
-                              clientResponse.bodyToMono(String.class).defaultIfEmpty("[empty body]"));
-                    return clientResponse.bodyToMono(String.class)
-                        .flatMap(body -> Mono.error(new CentralApiException("Central Bank API error: " + clientResponse.statusCode() + " - " + body)));
-                })
-                .bodyToMono(CentralBankCreditResponse.class)
+        return requestCreditReport(customerId)
                 .doOnSuccess(response -> {
                     if (response != null && response.creditScore() > 0) { // Corrected: response.creditScore()
                         log.info("Successfully received credit report for customerId: {} from API", customerId);
@@ -120,6 +178,11 @@ public class CentralBankApiClient {
                             .doOnSuccess(aVoid -> log.info("Successfully cached API response for customerId: {}", customerId))
                             .doOnError(cacheError -> log.error("Failed to cache API response for customerId: {}: {}", customerId, cacheError.getMessage()))
                             .subscribe(); // Subscribe to execute the cache operation
+                        // Keep it as the last good report, served by the fallback while the API is down
+                        lastGoodReportRedisTemplate.opsForValue().set(LAST_GOOD_REPORT_KEY_PREFIX + customerId,
+                                new LastGoodCreditReport(response, LocalDateTime.now()), staleReportMaxAge)
+                            .doOnError(cacheError -> log.error("Failed to store last good credit report for customerId: {}: {}", customerId, cacheError.getMessage()))
+                            .subscribe();
                     } else {
                         log.warn("Received no/invalid data from Central Bank API for customerId: {}. Response: {}", customerId, response);
                         saveApiCallLog(applicationId, "CentralBankAPI_NoData", requestTime, LocalDateTime.now(), HttpStatus.OK.value(), false); // Or a more specific status if applicable
@@ -136,11 +199,85 @@ public class CentralBankApiClient {
                         statusCode = HttpStatus.SERVICE_UNAVAILABLE.value(); // Or a custom code
                     }
                     saveApiCallLog(applicationId, "CentralBankAPI_Error", requestTime, LocalDateTime.now(), statusCode, false);
-                    // Propagate the error to be handled by Resilience4j's Retry/CircuitBreaker on getCreditReport
-                    return Mono.error(error); 
+                    // The error propagates to be handled by Resilience4j's Retry/CircuitBreaker on getCreditReport
                 });
     }
 
+    // Single lookups share bulk requests through the batcher unless batching is disabled.
+    // Each HTTP request holds one centralBankApi bulkhead permit: the batcher takes it around the bulk request,
+    // so a batch of max-batch-size lookups costs one permit instead of one per waiting lookup.
+    private Mono<CentralBankCreditResponse> requestCreditReport(String customerId) {
+        if (batchingEnabled) {
+            return creditCheckBatcher.fetch(customerId);
+        }
+        return centralBankWebClient.get()
+                .uri("/api/credit-check/{customerId}", customerId)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, clientResponse -> {
+                    log.error("Error from Central Bank API: Status = {}, Body = {}", 
+                              clientResponse.statusCode(), 
+                              clientResponse.bodyToMono(String.class).defaultIfEmpty("[empty body]"));
+                    return clientResponse.bodyToMono(String.class)
+                        .flatMap(body -> Mono.error(new CentralApiException("Central Bank API error: " + clientResponse.statusCode() + " - " + body)));
+                })
+                .bodyToMono(CentralBankCreditResponse.class)
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE)));
+    }
+
+    // Low-priority fetch ahead of scoring (see CreditReportPrefetcher). Only runs when the report isn't cached,
+    // the circuit is closed and the bulkhead has more than reservedPermits free, so assessments keep priority.
+    // A scoring miss for the same customer while the prefetch is in flight joins it instead of calling again.
+    public Mono<PrefetchOutcome> prefetchCreditReport(String customerId, UUID applicationId, int reservedPermits) {
+        String cacheKey = CENTRAL_BANK_CACHE_KEY_PREFIX + customerId;
+        return redisTemplate.hasKey(cacheKey)
+            .flatMap(cached -> {
+                if (cached) {
+                    return Mono.just(PrefetchOutcome.ALREADY_CACHED);
+                }
+                io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+                io.github.resilience4j.bulkhead.Bulkhead bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+                if (circuitBreaker.getState() != io.github.resilience4j.circuitbreaker.CircuitBreaker.State.CLOSED
+                        || bulkhead.getMetrics().getAvailableConcurrentCalls() <= reservedPermits) {
+                    return Mono.just(PrefetchOutcome.SKIPPED_UNHEALTHY);
+                }
+                return earlyRefreshCoordinator.coalesce(cacheKey, () -> fetchFromApiAndCache(customerId, applicationId, cacheKey)
+                        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker)))
+                    .filter(response -> response.creditScore() > 0)
+                    .flatMap(response -> stringRedisTemplate.opsForZSet().add(PREFETCHED_KEY, customerId, System.currentTimeMillis()))
+                    .map(added -> PrefetchOutcome.FETCHED)
+                    .defaultIfEmpty(PrefetchOutcome.FAILED);
+            })
+            .onErrorResume(e -> {
+                log.warn("Credit report prefetch failed for customerId: {}: {}", customerId, e.getMessage());
+                return Mono.just(PrefetchOutcome.FAILED);
+            });
+    }
+
+    // Prefetched reports nobody read before the cache TTL ran out; removes them from the tracking set.
+    // ZREMRANGEBYSCORE is atomic, so with several pods sweeping each one is counted once.
+    public Mono<Long> sweepUnusedPrefetches() {
+        long expiredBefore = System.currentTimeMillis() - CENTRAL_BANK_CACHE_TTL.toMillis();
+        return stringRedisTemplate.opsForZSet().removeRangeByScore(PREFETCHED_KEY, Range.closed(0.0, (double) expiredBefore));
+    }
+
+    private void recordPrefetchUse(String customerId) {
+        stringRedisTemplate.opsForZSet().remove(PREFETCHED_KEY, customerId)
+            .filter(removed -> removed > 0)
+            .subscribe(
+                removed -> prefetchUsedCounter.increment(),
+                error -> log.debug("Failed to update prefetch tracking for customerId: {}: {}", customerId, error.getMessage()));
+    }
+
+    // Used by the startup warm-up to seed a report rebuilt from a stored assessment. The entry only lives
+    // for what would have remained of the normal TTL since the report was fetched.
+    public Mono<Boolean> primeCache(CentralBankCreditResponse report, LocalDateTime fetchedAt) {
+        Duration remainingTtl = Duration.between(LocalDateTime.now(), fetchedAt.plus(CENTRAL_BANK_CACHE_TTL));
+        if (remainingTtl.isNegative() || remainingTtl.isZero()) {
+            return Mono.just(false);
+        }
+        return redisTemplate.opsForValue().setIfAbsent(CENTRAL_BANK_CACHE_KEY_PREFIX + report.customerId(), report, remainingTtl);
+    }
+
     // Fallback method for getCreditReport (called by Resilience4j CircuitBreaker)
     @SuppressWarnings("unused")
     private Mono<CentralBankCreditResponse> getCreditReportFallback(String customerId, UUID applicationId, Throwable t) {
@@ -148,7 +285,20 @@ public class CentralBankApiClient {
         apiFallbackCounter.increment();
         // Log the API call attempt with a specific status indicating fallback
         saveApiCallLog(applicationId, "CentralBankAPI_Fallback", LocalDateTime.now(), LocalDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(), false);
-        return Mono.just(new CentralBankCreditResponse(customerId, 0, "FALLBACK_API_UNAVAILABLE", "Service temporarily unavailable. Please try again later."));
+        // Prefer the customer's last good report (stale-while-error) over a zero score that rejects the application
+        return lastGoodReportRedisTemplate.opsForValue().get(LAST_GOOD_REPORT_KEY_PREFIX + customerId)
+            .filter(lastGood -> lastGood.fetchedAt().plus(staleReportMaxAge).isAfter(LocalDateTime.now()))
+            .map(lastGood -> {
+                log.info("Serving last good credit report for customerId: {} fetched at {}", customerId, lastGood.fetchedAt());
+                staleFallbackCounter.increment();
+                return new CentralBankCreditResponse(customerId, lastGood.report().creditScore(), STATUS_STALE_CACHE,
+                        "Last good report fetched at " + lastGood.fetchedAt() + ", served while the Central Bank API is unavailable");
+            })
+            .onErrorResume(e -> {
+                log.warn("Failed to read last good credit report for customerId: {}: {}", customerId, e.getMessage());
+                return Mono.empty();
+            })
+            .defaultIfEmpty(new CentralBankCreditResponse(customerId, 0, "FALLBACK_API_UNAVAILABLE", "Service temporarily unavailable. Please try again later."));
     }
 
     private void saveApiCallLog(UUID applicationId, String apiName, LocalDateTime requestTime, LocalDateTime responseTime, int statusCode, boolean cached) {
@@ -161,7 +311,7 @@ public class CentralBankApiClient {
         logEntry.setCached(cached);
         
         Mono.fromRunnable(() -> externalApiCallRepository.save(logEntry))
-            .subscribeOn(Schedulers.boundedElastic())
+            .subscribeOn(persistenceScheduler)
             .doOnError(e -> log.error("Failed to save external API call log: {}", e.getMessage()))
             .subscribe();
     }
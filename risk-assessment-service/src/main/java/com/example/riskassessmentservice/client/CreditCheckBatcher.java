@@ -0,0 +1,191 @@
+package com.example.riskassessmentservice.client;
+
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralApiException;
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Micro-batches credit report lookups into POST /api/credit-check/bulk.
+// A lookup waits at most max-wait for others to join; a batch is sent as soon as it holds max-batch-size
+// distinct customers. Lookups for the same customer in one batch share its result.
+// Every waiting Mono gets its own signal: a per-item error fails only that lookup (as CentralApiException),
+// a failed bulk request fails every lookup in it. So the Resilience4j retry and circuit breaker on
+// getCreditReport still see one call per assessment, and a retry simply re-enqueues into the next batch.
+// The centralBankApi bulkhead is taken around the bulk request itself: one permit per batch, so batches
+// can fill up to max-batch-size; a rejected batch fails its lookups with BulkheadFullException.
+@Component
+@Profile("!read-pod")
+public class CreditCheckBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CreditCheckBatcher.class);
+
+    private static final String RESULT_OK = "OK";
+    private static final String RESILIENCE_INSTANCE = "centralBankApi";
+
+    private final WebClient centralBankWebClient;
+    private final Bulkhead bulkhead;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+
+    private final Object lock = new Object();
+    private Map<String, List<MonoSink<CentralBankCreditResponse>>> pending = new LinkedHashMap<>(); // Guarded by lock
+    private Disposable flushTimer; // Guarded by lock
+
+    private final DistributionSummary batchSizeSummary;
+    private final Counter itemSuccessCounter;
+    private final Counter itemErrorCounter;
+    private final Counter batchErrorCounter;
+
+    public record BulkCreditCheckRequest(List<String> customerIds) {}
+
+    public record BulkCreditCheckResult(String customerId, String status, int creditScore, int outstandingLoans,
+                                        String paymentHistory, String error) {}
+
+    public record BulkCreditCheckResponse(List<BulkCreditCheckResult> results) {}
+
+    public CreditCheckBatcher(@Qualifier("centralBankWebClient") WebClient centralBankWebClient,
+                              BulkheadRegistry bulkheadRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${risk.credit-report.batching.max-batch-size:50}") int maxBatchSize,
+                              @Value("${risk.credit-report.batching.max-wait:5ms}") Duration maxWait) {
+        this.centralBankWebClient = centralBankWebClient;
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+
+        this.batchSizeSummary = DistributionSummary.builder("central_bank_api.batch.size")
+            .description("Distinct customers per bulk credit check request")
+            .register(meterRegistry);
+        this.itemSuccessCounter = Counter.builder("central_bank_api.batch.items")
+            .tag("result", "success")
+            .description("Customers answered by a bulk credit check request")
+            .register(meterRegistry);
+        this.itemErrorCounter = Counter.builder("central_bank_api.batch.items")
+            .tag("result", "error")
+            .description("Customers the bulk credit check reported an error (or nothing) for")
+            .register(meterRegistry);
+        this.batchErrorCounter = Counter.builder("central_bank_api.batch.failures")
+            .description("Bulk credit check requests that failed as a whole")
+            .register(meterRegistry);
+    }
+
+    public Mono<CentralBankCreditResponse> fetch(String customerId) {
+        return Mono.create(sink -> enqueue(customerId, sink));
+    }
+
+    private void enqueue(String customerId, MonoSink<CentralBankCreditResponse> sink) {
+        Map<String, List<MonoSink<CentralBankCreditResponse>>> ready = null;
+        synchronized (lock) {
+            pending.computeIfAbsent(customerId, id -> new ArrayList<>(1)).add(sink);
+            if (pending.size() >= maxBatchSize) {
+                ready = takePending();
+            } else if (flushTimer == null) {
+                flushTimer = Schedulers.parallel().schedule(this::flushDue, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        // A cancelled lookup (e.g. the caller timed out) leaves the batch if it hasn't been sent yet
+        sink.onCancel(() -> {
+            synchronized (lock) {
+                List<MonoSink<CentralBankCreditResponse>> waiting = pending.get(customerId);
+                if (waiting != null && waiting.remove(sink) && waiting.isEmpty()) {
+                    pending.remove(customerId);
+                }
+            }
+        });
+        if (ready != null) {
+            send(ready);
+        }
+    }
+
+    private void flushDue() {
+        Map<String, List<MonoSink<CentralBankCreditResponse>>> ready;
+        synchronized (lock) {
+            flushTimer = null;
+            ready = takePending();
+        }
+        if (!ready.isEmpty()) {
+            send(ready);
+        }
+    }
+
+    // Caller holds lock
+    private Map<String, List<MonoSink<CentralBankCreditResponse>>> takePending() {
+        Map<String, List<MonoSink<CentralBankCreditResponse>>> taken = pending;
+        pending = new LinkedHashMap<>();
+        if (flushTimer != null) {
+            flushTimer.dispose();
+            flushTimer = null;
+        }
+        return taken;
+    }
+
+    private void send(Map<String, List<MonoSink<CentralBankCreditResponse>>> batch) {
+        List<String> customerIds = new ArrayList<>(batch.keySet());
+        batchSizeSummary.record(customerIds.size());
+        log.info("Sending bulk credit check for {} customers", customerIds.size());
+
+        centralBankWebClient.post()
+                .uri("/api/credit-check/bulk")
+                .bodyValue(new BulkCreditCheckRequest(customerIds))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("[empty body]")
+                        .map(body -> new CentralApiException("Central Bank API bulk error: " + clientResponse.statusCode() + " - " + body)))
+                .bodyToMono(BulkCreditCheckResponse.class)
+                .defaultIfEmpty(new BulkCreditCheckResponse(List.of()))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .subscribe(response -> dispatch(batch, response), error -> failAll(batch, error));
+    }
+
+    private void dispatch(Map<String, List<MonoSink<CentralBankCreditResponse>>> batch, BulkCreditCheckResponse response) {
+        Map<String, BulkCreditCheckResult> results = response.results() == null ? Map.of() : response.results().stream()
+                .filter(result -> result.customerId() != null)
+                .collect(Collectors.toMap(BulkCreditCheckResult::customerId, Function.identity(), (first, second) -> first));
+
+        batch.forEach((customerId, sinks) -> {
+            BulkCreditCheckResult result = results.get(customerId);
+            if (result == null || !RESULT_OK.equals(result.status())) {
+                itemErrorCounter.increment();
+                String reason = result == null ? "No result in bulk response for customer: " + customerId
+                        : result.error() != null ? result.error() : "Bulk credit check status " + result.status() + " for customer: " + customerId;
+                sinks.forEach(sink -> sink.error(new CentralApiException(reason)));
+                return;
+            }
+            itemSuccessCounter.increment();
+            CentralBankCreditResponse report = new CentralBankCreditResponse(customerId, result.creditScore(), result.status(), result.paymentHistory());
+            sinks.forEach(sink -> sink.success(report));
+        });
+    }
+
+    private void failAll(Map<String, List<MonoSink<CentralBankCreditResponse>>> batch, Throwable error) {
+        batchErrorCounter.increment();
+        log.error("Bulk credit check for {} customers failed: {}", batch.size(), error.getMessage());
+        batch.values().forEach(sinks -> sinks.forEach(sink -> sink.error(error)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.riskassessmentservice.collateral;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read-only, memory-mapped collateral reference table. The rows stay in the page cache instead of on the
+// heap, so a table of millions of rows costs neither heap nor a reload pause; lookups are a binary search
+// with absolute reads and allocate nothing.
+//
+// File layout (big-endian), written by CollateralTableWriter:
+//   header:  int magic "COLT" | int format version | long table version | int row count | int reserved
+//   rows:    long key | float max LTV | float haircut, sorted by key (signed), keys unique
+// The key is key(loanPurpose, region, assetType), a 64-bit hash; "*" is the wildcard for any field.
+public final class CollateralTable {
+
+    public static final String WILDCARD = "*";
+
+    static final int MAGIC = 0x434F4C54; // "COLT"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int ROW_BYTES = 16;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ByteBuffer rows;
+    private final long version;
+    private final int rowCount;
+
+    private CollateralTable(ByteBuffer rows, long version, int rowCount) {
+        this.rows = rows;
+        this.version = version;
+        this.rowCount = rowCount;
+    }
+
+    // Maps and validates the file. The mapping stays valid after the file is replaced or deleted, which is
+    // what makes an atomic rename of a new version safe while lookups run against the old one.
+    public static CollateralTable open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Collateral table " + path + " is too short");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a collateral table: " + path);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported collateral table format " + buffer.getInt(4) + " in " + path);
+        }
+        long version = buffer.getLong(8);
+        int rowCount = buffer.getInt(16);
+        if (rowCount < 0 || buffer.capacity() != HEADER_BYTES + (long) rowCount * ROW_BYTES) {
+            throw new IOException("Collateral table " + path + " is truncated or has trailing data (" + rowCount + " rows declared)");
+        }
+        ByteBuffer rows = buffer.slice(HEADER_BYTES, rowCount * ROW_BYTES);
+        CollateralTable table = new CollateralTable(rows, version, rowCount);
+        table.validate(path);
+        return table;
+    }
+
+    // One sequential pass at load time, so that lookups never see an unsorted or nonsensical table
+    private void validate(Path path) throws IOException {
+        long previousKey = Long.MIN_VALUE;
+        for (int row = 0; row < rowCount; row++) {
+            long key = keyAt(row);
+            if (row > 0 && key <= previousKey) {
+                throw new IOException("Collateral table " + path + " is not sorted by key at row " + row);
+            }
+            float maxLtv = maxLtv(row);
+            float haircut = haircut(row);
+            if (!(maxLtv > 0 && maxLtv <= 2) || !(haircut >= 0 && haircut < 1)) {
+                throw new IOException("Collateral table " + path + " has an invalid row " + row + ": max LTV " + maxLtv + ", haircut " + haircut);
+            }
+            previousKey = key;
+        }
+    }
+
+    // Row index of the key, or -1
+    public int find(long key) {
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = keyAt(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public float maxLtv(int row) {
+        return rows.getFloat(row * ROW_BYTES + 8);
+    }
+
+    public float haircut(int row) {
+        return rows.getFloat(row * ROW_BYTES + 12);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    private long keyAt(int row) {
+        return rows.getLong(row * ROW_BYTES);
+    }
+
+    // Case-insensitive 64-bit hash of the three fields (FNV-1a over the chars, MurmurHash3 fmix64), without
+    // allocating: no String concatenation, no getBytes(). A null field is the wildcard.
+    public static long key(String loanPurpose, String region, String assetType) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, loanPurpose);
+        hash = (hash ^ 0x1F) * FNV_PRIME; // Field separator, so ("AB", "C") and ("A", "BC") differ
+        hash = mix(hash, region);
+        hash = (hash ^ 0x1F) * FNV_PRIME;
+        hash = mix(hash, assetType);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long mix(long hash, String field) {
+        String value = field != null ? field : WILDCARD;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ Character.toUpperCase(value.charAt(i))) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.riskassessmentservice.collateral;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Builds collateral table files for CollateralTable. The file is written next to the target and renamed
+// over it atomically, so a running service never maps a half-written table.
+// From a CSV export (loanPurpose,region,assetType,maxLtv,haircut; "*" as wildcard, '#' comments):
+//   java -cp risk-assessment-service.jar -Dloader.main=com.example.riskassessmentservice.collateral.CollateralTableWriter \
+//        org.springframework.boot.loader.launch.PropertiesLauncher collateral.csv collateral-table.bin <version>
+public final class CollateralTableWriter {
+
+    public record Row(String loanPurpose, String region, String assetType, float maxLtv, float haircut) {}
+
+    private CollateralTableWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: CollateralTableWriter <input.csv> <output.bin> <version>");
+            System.exit(2);
+        }
+        List<Row> rows;
+        try (Stream<String> lines = Files.lines(Path.of(args[0]))) {
+            rows = lines.map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(CollateralTableWriter::parse)
+                .toList();
+        }
+        write(Path.of(args[1]), Long.parseLong(args[2]), rows);
+        System.out.printf("Wrote %d rows to %s%n", rows.size(), args[1]);
+    }
+
+    public static void write(Path target, long version, List<Row> rows) throws IOException {
+        List<long[]> keyed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            keyed.add(new long[] {CollateralTable.key(row.loanPurpose(), row.region(), row.assetType()), i});
+        }
+        keyed.sort(Comparator.comparingLong(entry -> entry[0]));
+
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(CollateralTable.MAGIC);
+                out.writeInt(CollateralTable.FORMAT_VERSION);
+                out.writeLong(version);
+                out.writeInt(rows.size());
+                out.writeInt(0);
+                for (int i = 0; i < keyed.size(); i++) {
+                    long[] entry = keyed.get(i);
+                    if (i > 0 && entry[0] == keyed.get(i - 1)[0]) {
+                        throw new IllegalArgumentException("Duplicate collateral table row: " + rows.get((int) entry[1]));
+                    }
+                    Row row = rows.get((int) entry[1]);
+                    out.writeLong(entry[0]);
+                    out.writeFloat(row.maxLtv());
+                    out.writeFloat(row.haircut());
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Row parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected loanPurpose,region,assetType,maxLtv,haircut: " + line);
+        }
+        return new Row(fields[0].trim(), fields[1].trim(), fields[2].trim(), Float.parseFloat(fields[3].trim()), Float.parseFloat(fields[4].trim()));
+    }
+}
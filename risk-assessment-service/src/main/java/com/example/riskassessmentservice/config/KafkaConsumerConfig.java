@@ -1,5 +1,7 @@
 package com.example.riskassessmentservice.config;
 
+import com.example.riskassessmentservice.dto.ApplicationSubmittedEvent;
+import com.example.riskassessmentservice.dto.DecisionEvent;
 import com.example.riskassessmentservice.dto.InitialScoringCompleteEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -9,8 +11,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,8 +28,14 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${risk.prefetch.group-id:risk-assessment-prefetch}")
+    private String prefetchGroupId;
+
+    @Value("${risk.read-store.instance-id:${HOSTNAME:local}}")
+    private String readStoreInstanceId;
+
     @Bean
-    public ConsumerFactory<String, InitialScoringCompleteEvent> consumerFactory() {
+    public ConsumerFactory<String, InitialScoringCompleteEvent> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
@@ -36,14 +47,77 @@ public class KafkaConsumerConfig {
         jsonDeserializer.addTrustedPackages("*"); // Trust all packages - use with caution in production
         jsonDeserializer.setUseTypeMapperForKey(true);
 
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
+        DefaultKafkaConsumerFactory<String, InitialScoringCompleteEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
+        // Kafka client metrics, incl. kafka.consumer.fetch.manager.records.lag(.max) to watch the backlog while paused
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, InitialScoringCompleteEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, InitialScoringCompleteEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, InitialScoringCompleteEvent> consumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, InitialScoringCompleteEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        return factory;
+    }
+
+    // loan-applications is produced by application-service (kafkajs), which sends no type headers
+    @Bean
+    public ConsumerFactory<String, ApplicationSubmittedEvent> loanApplicationsConsumerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // Own group, so prefetching never shares offsets or partitions with scoring
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, prefetchGroupId);
+        // A prefetch for an old submission is wasted, so a new group starts at the end of the topic
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        JsonDeserializer<ApplicationSubmittedEvent> jsonDeserializer = new JsonDeserializer<>(ApplicationSubmittedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+
+        DefaultKafkaConsumerFactory<String, ApplicationSubmittedEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ApplicationSubmittedEvent> loanApplicationsListenerContainerFactory(
+            ConsumerFactory<String, ApplicationSubmittedEvent> loanApplicationsConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, ApplicationSubmittedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(loanApplicationsConsumerFactory);
+        return factory;
+    }
+
+    // decision-events for the local read store. Every pod replays all partitions itself and keeps its position
+    // in the store's snapshot, so each instance has its own group (whose committed offsets are never used).
+    // The group is named after the stable instance id, so restarts reuse it instead of leaving groups behind.
+    @Bean
+    public ConsumerFactory<String, DecisionEvent> decisionEventsConsumerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "risk-assessment-read-store-" + readStoreInstanceId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        JsonDeserializer<DecisionEvent> jsonDeserializer = new JsonDeserializer<>(DecisionEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+
+        DefaultKafkaConsumerFactory<String, DecisionEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DecisionEvent> decisionEventsListenerContainerFactory(
+            ConsumerFactory<String, DecisionEvent> decisionEventsConsumerFactory,
+            @Value("${risk.read-store.idle-interval-ms:2000}") long idleIntervalMs) {
+        ConcurrentKafkaListenerContainerFactory<String, DecisionEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(decisionEventsConsumerFactory);
+        // An idle container means the replay has caught up (also when there was nothing to replay)
+        factory.getContainerProperties().setIdleEventInterval(idleIntervalMs);
         return factory;
     }
 }
@@ -1,11 +1,14 @@
 package com.example.riskassessmentservice.config;
 
 import com.example.riskassessmentservice.dto.DecisionEvent;
+import com.example.riskassessmentservice.service.KafkaEventProducer;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -33,4 +36,17 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, DecisionEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    // Created by KafkaAdmin if missing. Log-compacted: it keeps the latest decision (with its assessment) per
+    // applicationId, which is what the local read store replays. An existing topic keeps its cleanup policy
+    // until it is altered (kafka-configs --alter --add-config cleanup.policy=compact).
+    @Bean
+    public NewTopic decisionEventsTopic(@Value("${risk.kafka.decision-events.partitions:3}") int partitions,
+                                        @Value("${risk.kafka.decision-events.replicas:1}") int replicas) {
+        return TopicBuilder.name(KafkaEventProducer.DECISION_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
 }
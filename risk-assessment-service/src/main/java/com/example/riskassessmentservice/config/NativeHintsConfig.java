@@ -0,0 +1,70 @@
+package com.example.riskassessmentservice.config;
+
+import com.example.riskassessmentservice.client.CentralBankApiClient;
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse;
+import com.example.riskassessmentservice.client.CentralBankApiClient.LastGoodCreditReport;
+import com.example.riskassessmentservice.client.CreditCheckBatcher.BulkCreditCheckRequest;
+import com.example.riskassessmentservice.client.CreditCheckBatcher.BulkCreditCheckResponse;
+import com.example.riskassessmentservice.client.CreditCheckBatcher.BulkCreditCheckResult;
+import com.example.riskassessmentservice.dto.ApplicationSubmittedEvent;
+import com.example.riskassessmentservice.dto.DecisionEvent;
+import com.example.riskassessmentservice.dto.DecisionStatsBucket;
+import com.example.riskassessmentservice.dto.DecisionStatsSnapshot;
+import com.example.riskassessmentservice.dto.HealthStatus;
+import com.example.riskassessmentservice.dto.InitialScoringCompleteEvent;
+import com.example.riskassessmentservice.dto.ReassessmentRequest;
+import com.example.riskassessmentservice.dto.RescoringJobStatus;
+import com.example.riskassessmentservice.model.RiskAssessment;
+import com.example.riskassessmentservice.model.RiskFactor;
+import com.example.riskassessmentservice.service.RiskScoringPolicy.ScoringInputs;
+import com.example.riskassessmentservice.service.ShadowScoringService.ShadowScore;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+// Reflection hints for the GraalVM native image (mvn -Pnative native:compile). Spring AOT infers most of
+// what it needs, but not types that are only reached through Jackson outside of MVC bindings:
+// - the values of the Redis templates in RedisConfig
+// - the Kafka JSON payloads (the producer writes the class name into the __TypeId__ header)
+// - the shadow scoring records written by ShadowScoreSink
+// - exception classes that Resilience4j resolves by name from application.yml
+// - the private fallback method that @CircuitBreaker invokes reflectively
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.RiskAssessmentRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class RiskAssessmentRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    // RedisConfig serializers
+                    CentralBankCreditResponse.class, LastGoodCreditReport.class, RiskAssessment.class, RiskFactor.class,
+                    // Kafka JSON payloads
+                    InitialScoringCompleteEvent.class, ApplicationSubmittedEvent.class, DecisionEvent.class,
+                    // Central Bank API bulk credit check
+                    BulkCreditCheckRequest.class, BulkCreditCheckResponse.class, BulkCreditCheckResult.class,
+                    // REST bodies
+                    DecisionStatsSnapshot.class, DecisionStatsBucket.class, ReassessmentRequest.class,
+                    RescoringJobStatus.class, HealthStatus.class,
+                    // Shadow scoring NDJSON sink
+                    ShadowScore.class, ScoringInputs.class);
+
+            hints.reflection().registerType(CentralBankApiClient.class, MemberCategory.INVOKE_DECLARED_METHODS);
+            for (String exception : new String[] {
+                    "com.example.riskassessmentservice.client.CentralBankApiClient$CentralApiException",
+                    "org.springframework.web.reactive.function.client.WebClientRequestException",
+                    "org.springframework.web.reactive.function.client.WebClientResponseException$BadRequest",
+                    "java.util.concurrent.TimeoutException",
+                    "java.io.IOException"}) {
+                hints.reflection().registerType(TypeReference.of(exception));
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.riskassessmentservice.config;
 
-import com.example.riskassessmentservice.model.CentralBankCreditResponse;
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse;
+import com.example.riskassessmentservice.client.CentralBankApiClient.LastGoodCreditReport;
 import com.example.riskassessmentservice.model.RiskAssessment; // Added import
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
@@ -13,6 +15,7 @@ import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
+@Profile("!read-pod")
 public class RedisConfig {
 
     @Bean
@@ -61,5 +64,24 @@ public class RedisConfig {
 
         return new ReactiveRedisTemplate<>(factory, context);
     }
-}
 
+    @Bean
+    public ReactiveRedisTemplate<String, LastGoodCreditReport> lastGoodCreditReportRedisTemplate(
+            ReactiveRedisConnectionFactory factory) {
+        StringRedisSerializer keySerializer = new StringRedisSerializer();
+
+        // JavaTimeModule for the fetchedAt timestamp
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        Jackson2JsonRedisSerializer<LastGoodCreditReport> valueSerializer =
+                new Jackson2JsonRedisSerializer<>(objectMapper, LastGoodCreditReport.class);
+
+        RedisSerializationContext<String, LastGoodCreditReport> context =
+                RedisSerializationContext.<String, LastGoodCreditReport>newSerializationContext(keySerializer)
+                       .value(valueSerializer).hashValue(valueSerializer)
+                       .hashKey(keySerializer).build();
+
+        return new ReactiveRedisTemplate<>(factory, context);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.riskassessmentservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+// Scheduler for blocking calls (JPA/JDBC) made from reactive pipelines. Pure CPU stages don't need one
+// and run inline on the calling thread.
+// - bounded-elastic: Reactor's shared pool of platform threads (10 x cores, with a task queue)
+// - virtual-threads: one virtual thread per task; a blocked JDBC call only parks its virtual thread, so
+//   concurrency is bounded by the connection pool instead of by a thread cap
+@Configuration
+public class SchedulerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerConfig.class);
+
+    public static final String BOUNDED_ELASTIC = "bounded-elastic";
+    public static final String VIRTUAL_THREADS = "virtual-threads";
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler persistenceScheduler(@Value("${risk.scheduling.blocking-mode:" + VIRTUAL_THREADS + "}") String blockingMode) {
+        log.info("Blocking persistence calls run on the {} scheduler", blockingMode);
+        return createPersistenceScheduler(blockingMode);
+    }
+
+    // Also used by the scheduler benchmark, so both measure exactly what the service runs on
+    public static Scheduler createPersistenceScheduler(String blockingMode) {
+        return switch (blockingMode) {
+            case VIRTUAL_THREADS -> Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("persistence-vt-", 0).factory()),
+                    "persistence-virtual");
+            // A dedicated instance rather than the shared Schedulers.boundedElastic(), so disposing it is safe
+            case BOUNDED_ELASTIC -> Schedulers.newBoundedElastic(
+                    Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "persistence");
+            default -> throw new IllegalArgumentException("Unknown risk.scheduling.blocking-mode '" + blockingMode
+                    + "', expected " + BOUNDED_ELASTIC + " or " + VIRTUAL_THREADS);
+        };
+    }
+}
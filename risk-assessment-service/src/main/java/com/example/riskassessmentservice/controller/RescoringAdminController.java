@@ -0,0 +1,59 @@
+package com.example.riskassessmentservice.controller;
+
+import com.example.riskassessmentservice.dto.RescoringJobStatus;
+import com.example.riskassessmentservice.service.BulkRescoringJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// Operator endpoints of the bulk re-scoring job (see BulkRescoringJob)
+@RestController
+@Profile("!read-pod")
+@RequestMapping("/api/risk/admin/rescoring")
+public class RescoringAdminController {
+
+    private static final Logger log = LoggerFactory.getLogger(RescoringAdminController.class);
+
+    private final BulkRescoringJob bulkRescoringJob;
+    private final Scheduler persistenceScheduler;
+
+    public RescoringAdminController(BulkRescoringJob bulkRescoringJob,
+                                    @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
+        this.bulkRescoringJob = bulkRescoringJob;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+    // Starts a run, or resumes the given job ID from its checkpoint
+    @PostMapping
+    public Mono<ResponseEntity<RescoringJobStatus>> start(@RequestParam(required = false) String jobId) {
+        log.info("Received request to start re-scoring job {}", jobId);
+        return Mono.fromCallable(() -> bulkRescoringJob.start(jobId)) // Reads the checkpoint table
+                .subscribeOn(persistenceScheduler)
+                .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status))
+                .onErrorResume(IllegalStateException.class, e -> {
+                    log.warn("Re-scoring job not started: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(bulkRescoringJob.status()));
+                });
+    }
+
+    @PostMapping("/stop")
+    public Mono<RescoringJobStatus> stop() {
+        return Mono.just(bulkRescoringJob.stop());
+    }
+
+    @PutMapping("/throttle")
+    public Mono<RescoringJobStatus> throttle(@RequestParam int maxRowsPerSecond) {
+        return Mono.just(bulkRescoringJob.throttle(maxRowsPerSecond));
+    }
+
+    @GetMapping
+    public Mono<RescoringJobStatus> status() {
+        return Mono.just(bulkRescoringJob.status());
+    }
+}
@@ -1,32 +1,37 @@
 package com.example.riskassessmentservice.controller;
 
+import com.example.riskassessmentservice.dto.DecisionStatsSnapshot;
 import com.example.riskassessmentservice.dto.HealthStatus;
-import com.example.riskassessmentservice.dto.InitialScoringCompleteEvent;
+import com.example.riskassessmentservice.dto.ReassessmentRequest;
 import com.example.riskassessmentservice.model.RiskAssessment;
-import com.example.riskassessmentservice.repository.RiskAssessmentRepository;
+import com.example.riskassessmentservice.readstore.AssessmentReadStore;
+import com.example.riskassessmentservice.service.DecisionStatsAggregator;
 import com.example.riskassessmentservice.service.RiskAssessmentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
+// On read pods (profile read-pod) only the assessment lookup and health are served: the scoring service and
+// the decision stats don't exist there, so the other endpoints answer 404.
 @RestController
 @RequestMapping("/api/risk")
 public class RiskAssessmentController {
 
     private static final Logger log = LoggerFactory.getLogger(RiskAssessmentController.class);
 
-    private final RiskAssessmentService riskAssessmentService;
-    private final RiskAssessmentRepository riskAssessmentRepository; // For direct lookups
+    private final ObjectProvider<RiskAssessmentService> riskAssessmentService;
+    private final ObjectProvider<DecisionStatsAggregator> decisionStatsAggregator;
+    private final AssessmentReadStore assessmentReadStore;
     private final MeterRegistry meterRegistry;
 
     private final Counter getAssessmentSuccessCounter;
@@ -34,11 +39,13 @@ public class RiskAssessmentController {
     private final Counter reassessSuccessCounter;
     private final Counter reassessErrorCounter;
 
-    public RiskAssessmentController(RiskAssessmentService riskAssessmentService, 
-                                  RiskAssessmentRepository riskAssessmentRepository, 
+    public RiskAssessmentController(ObjectProvider<RiskAssessmentService> riskAssessmentService,
+                                  ObjectProvider<DecisionStatsAggregator> decisionStatsAggregator,
+                                  AssessmentReadStore assessmentReadStore,
                                   MeterRegistry meterRegistry) {
         this.riskAssessmentService = riskAssessmentService;
-        this.riskAssessmentRepository = riskAssessmentRepository;
+        this.decisionStatsAggregator = decisionStatsAggregator;
+        this.assessmentReadStore = assessmentReadStore;
         this.meterRegistry = meterRegistry;
 
         this.getAssessmentSuccessCounter = Counter.builder("risk_assessment.controller.requests")
@@ -69,60 +76,61 @@ public class RiskAssessmentController {
     @GetMapping("/assessments/{applicationId}")
     public Mono<ResponseEntity<RiskAssessment>> getRiskAssessment(@PathVariable UUID applicationId) {
         log.info("Received request to get risk assessment for applicationId: {}", applicationId);
-        // JPA calls are blocking, so schedule on boundedElastic
-        // Note: A more reactive approach would involve R2DBC or a query that returns Mono/Flux directly.
-        // For simplicity with current setup, we find all and filter, which is not ideal for performance.
-        // A dedicated findByApplicationId method in the repository would be better.
-        return Mono.fromCallable(() -> riskAssessmentRepository.findAll().stream()
-                        .filter(ra -> ra.getApplicationId().equals(applicationId))
-                        .findFirst())
-                .subscribeOn(Schedulers.boundedElastic())
-                .map(assessmentOpt -> assessmentOpt.map(assessment -> {
-                            getAssessmentSuccessCounter.increment();
-                            return ResponseEntity.ok(assessment);
-                        })
-                        .orElseGet(() -> {
-                            getAssessmentNotFoundCounter.increment();
-                            return ResponseEntity.notFound().build();
-                        }))
-                .defaultIfEmpty(ResponseEntity.notFound().build());
-                // Note: defaultIfEmpty for the overall Mono might also mean 'not found' if the callable returns empty & map doesn't run.
-                // Consider if getAssessmentNotFoundCounter should also be incremented there if that's a distinct 'not found' case.
-                // For now, it's covered if assessmentOpt is empty.
+        // Served through the service's cache (including negative entries for not-yet-scored applications),
+        // or on read pods (risk.read-store.enabled) from the local store without Redis or Postgres
+        Mono<RiskAssessment> lookup = assessmentReadStore.isEnabled()
+                ? assessmentReadStore.find(applicationId)
+                : writeSide(riskAssessmentService).getRiskAssessmentByApplicationId(applicationId);
+        return lookup
+                .map(assessment -> {
+                    getAssessmentSuccessCounter.increment();
+                    return ResponseEntity.ok(assessment);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    getAssessmentNotFoundCounter.increment();
+                    return ResponseEntity.notFound().build();
+                }));
     }
 
     @PostMapping("/reassess/{applicationId}")
-    public Mono<ResponseEntity<RiskAssessment>> reassessRisk(@PathVariable UUID applicationId) {
+    public Mono<ResponseEntity<RiskAssessment>> reassessRisk(@PathVariable UUID applicationId,
+                                                             @RequestBody(required = false) ReassessmentRequest request) {
         log.info("Received request to reassess risk for applicationId: {}", applicationId);
-        // For reassessment, we might need to fetch fresh application data.
-        // Here, we'll simulate this by creating a new InitialScoringCompleteEvent with the applicationId.
-        // In a real system, you might fetch data from another service or database.
-
-        // Mocking event data for reassessment
-        // TODO: Replace with actual data fetching logic if needed
-        InitialScoringCompleteEvent reassessmentEvent = new InitialScoringCompleteEvent(
-                applicationId,
-                "CUSTOMER_" + applicationId.toString().substring(0, 8), // Mock customerId
-                BigDecimal.valueOf(10000), // Mock loan amount
-                BigDecimal.valueOf(5000),  // Mock income
-                "Reassessment Purpose",    // Mock purpose
-                1.0                        // Mock initial score weight
-        );
-
-        return riskAssessmentService.assessRisk(reassessmentEvent)
+        // Incremental: only factors affected by the changed inputs (or expired) are recomputed
+        return writeSide(riskAssessmentService).reassessRisk(applicationId, request)
                 .map(assessment -> {
                     reassessSuccessCounter.increment();
                     return ResponseEntity.ok(assessment);
                 })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    getAssessmentNotFoundCounter.increment();
+                    return ResponseEntity.notFound().build();
+                }))
                 .onErrorResume(e -> {
                     log.error("Error during reassessment for applicationId: {}: {}", applicationId, e.getMessage());
                     reassessErrorCounter.increment();
-                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                    HttpStatus status = e instanceof IllegalArgumentException ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.INTERNAL_SERVER_ERROR;
+                    return Mono.just(ResponseEntity.status(status).build());
                 });
     }
 
+    // Approval rate, average risk score and mean processing time per hour and loan purpose,
+    // served from the in-process read-model (no database access)
+    @GetMapping("/stats")
+    public Mono<DecisionStatsSnapshot> getDecisionStats(@RequestParam(defaultValue = "cluster") String scope) {
+        return Mono.just(writeSide(decisionStatsAggregator).snapshot(scope));
+    }
+
     @GetMapping("/health")
     public Mono<HealthStatus> getHealth() {
         return Mono.just(new HealthStatus("RiskAssessmentService is UP"));
     }
+
+    private static <T> T writeSide(ObjectProvider<T> provider) {
+        T bean = provider.getIfAvailable();
+        if (bean == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not served by read pods");
+        }
+        return bean;
+    }
 }
@@ -0,0 +1,92 @@
+package com.example.riskassessmentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.UUID;
+
+// ApplicationSubmitted event from the 'loan-applications' topic (published by application-service).
+// Only the fields needed to prefetch the credit report are mapped; the payload is ignored.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ApplicationSubmittedEvent {
+
+    public static final String TYPE = "ApplicationSubmitted";
+
+    private String eventId;
+    private String eventType;
+    private String timestamp;
+    private UUID applicationId;
+    private String customerId;
+    private String correlationId;
+
+    // Constructors
+    public ApplicationSubmittedEvent() {
+    }
+
+    public ApplicationSubmittedEvent(String eventId, String eventType, String timestamp, UUID applicationId, String customerId, String correlationId) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.timestamp = timestamp;
+        this.applicationId = applicationId;
+        this.customerId = customerId;
+        this.correlationId = correlationId;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public UUID getApplicationId() {
+        return applicationId;
+    }
+
+    public void setApplicationId(UUID applicationId) {
+        this.applicationId = applicationId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationSubmittedEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", eventType='" + eventType + '\'' +
+                ", applicationId=" + applicationId +
+                ", customerId='" + customerId + '\'' +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.riskassessmentservice.dto;
 
+import com.example.riskassessmentservice.model.RiskAssessment;
+
 import java.math.BigDecimal;
 import java.util.UUID;
 
@@ -11,17 +13,23 @@ public class DecisionEvent {
     private String decision;
     private String reason;
     private BigDecimal finalRiskScore;
+    private String customerId;
+    private BigDecimal loanAmount; // Keeps the per-customer obligation aggregates (DebtToIncomeEngine) derivable from the topic
+    private RiskAssessment assessment; // Full assessment as of this decision; the compacted topic holds the latest one per application
 
     // Constructors
     public DecisionEvent() {
     }
 
-    public DecisionEvent(UUID applicationId, UUID assessmentId, String decision, String reason, BigDecimal finalRiskScore) {
+    public DecisionEvent(UUID applicationId, UUID assessmentId, String decision, String reason, BigDecimal finalRiskScore,
+                         String customerId, BigDecimal loanAmount) {
         this.applicationId = applicationId;
         this.assessmentId = assessmentId;
         this.decision = decision;
         this.reason = reason;
         this.finalRiskScore = finalRiskScore;
+        this.customerId = customerId;
+        this.loanAmount = loanAmount;
     }
 
     // Getters and Setters
@@ -65,6 +73,30 @@ public class DecisionEvent {
         this.finalRiskScore = finalRiskScore;
     }
 
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public BigDecimal getLoanAmount() {
+        return loanAmount;
+    }
+
+    public void setLoanAmount(BigDecimal loanAmount) {
+        this.loanAmount = loanAmount;
+    }
+
+    public RiskAssessment getAssessment() {
+        return assessment;
+    }
+
+    public void setAssessment(RiskAssessment assessment) {
+        this.assessment = assessment;
+    }
+
     @Override
     public String toString() {
         return "DecisionEvent{" +
@@ -73,6 +105,8 @@ public class DecisionEvent {
                 ", decision='" + decision + '\'' +
                 ", reason='" + reason + '\'' +
                 ", finalRiskScore=" + finalRiskScore +
+                ", customerId='" + customerId + '\'' +
+                ", loanAmount=" + loanAmount +
                 '}';
     }
 }
@@ -0,0 +1,13 @@
+package com.example.riskassessmentservice.dto;
+
+import java.time.Instant;
+
+// One tumbling one-hour window of decision statistics for a loan purpose ("ALL" aggregates every purpose).
+public record DecisionStatsBucket(Instant hourStart,
+                                  String loanPurpose,
+                                  long assessments,
+                                  long approved,
+                                  double approvalRate,
+                                  double averageRiskScore,
+                                  double meanProcessingTimeMs) {
+}
@@ -0,0 +1,8 @@
+package com.example.riskassessmentservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Response of GET /api/risk/stats. scope is "cluster" when merged through Redis, "local" otherwise.
+public record DecisionStatsSnapshot(Instant generatedAt, String scope, List<DecisionStatsBucket> buckets) {
+}
@@ -0,0 +1,16 @@
+package com.example.riskassessmentservice.dto;
+
+import java.math.BigDecimal;
+
+// Optional body of POST /api/risk/reassess/{applicationId}. Null fields keep the inputs stored with the
+// assessment; forceRefresh re-fetches the credit report and reruns the fraud check even if they haven't expired.
+public record ReassessmentRequest(BigDecimal loanAmount,
+                                  BigDecimal income,
+                                  String loanPurpose,
+                                  Double initialScoreWeight,
+                                  boolean forceRefresh) {
+
+    public static ReassessmentRequest none() {
+        return new ReassessmentRequest(null, null, null, null, false);
+    }
+}
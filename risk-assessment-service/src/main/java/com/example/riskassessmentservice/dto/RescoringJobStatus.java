@@ -0,0 +1,18 @@
+package com.example.riskassessmentservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Progress of a bulk re-scoring run (GET /api/risk/admin/rescoring). state is IDLE, RUNNING, STOPPING,
+// PAUSED (stopped, resumable), COMPLETED or FAILED; the checkpoint is the last committed keyset position.
+public record RescoringJobStatus(String jobId,
+                                 String state,
+                                 String policyVersion,
+                                 long rowsScanned,
+                                 long rowsUpdated,
+                                 long rowsSkipped,
+                                 double rowsPerSecond,
+                                 int maxRowsPerSecond,
+                                 LocalDateTime checkpointAssessmentDate,
+                                 UUID checkpointAssessmentId) {
+}
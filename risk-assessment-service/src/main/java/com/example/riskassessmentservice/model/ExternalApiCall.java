@@ -17,7 +17,8 @@ public class ExternalApiCall {
     @Column(name = "api_name")
     private String apiName;
 
-    @Column(name = "request_time")
+    // Partition key of external_api_calls
+    @Column(name = "request_time", nullable = false)
     private LocalDateTime requestTime;
 
     @Column(name = "response_time")
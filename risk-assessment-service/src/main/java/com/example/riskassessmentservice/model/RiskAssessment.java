@@ -3,6 +3,7 @@ package com.example.riskassessmentservice.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,7 +17,11 @@ public class RiskAssessment {
     @Column(name = "application_id", nullable = false)
     private UUID applicationId;
 
-    @Column(name = "assessment_date", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    @Column(name = "customer_id")
+    private String customerId;
+
+    // Partition key of risk_assessments; never updated so rows don't move between partitions
+    @Column(name = "assessment_date", nullable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime assessmentDate;
 
     @Column(name = "credit_score")
@@ -37,8 +42,27 @@ public class RiskAssessment {
     @Column(name = "processing_time_ms")
     private Integer processingTimeMs;
 
+    // Inputs of the last evaluation, so a reassessment can tell which factors are affected by a change
+    @Column(name = "loan_amount")
+    private BigDecimal loanAmount;
+
+    @Column(name = "income")
+    private BigDecimal income;
+
+    @Column(name = "loan_purpose")
+    private String loanPurpose;
+
+    @Column(name = "initial_score_weight")
+    private Double initialScoreWeight;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "credit_report_stale", nullable = false)
+    private boolean creditReportStale; // Scored with a last good credit report while the Central Bank API was down
+
     @OneToMany(mappedBy = "assessment", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<RiskFactor> riskFactors;
+    private List<RiskFactor> riskFactors = new ArrayList<>();
 
     // Constructors
     public RiskAssessment() {
@@ -63,6 +87,14 @@ public class RiskAssessment {
         this.applicationId = applicationId;
     }
 
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
     public LocalDateTime getAssessmentDate() {
         return assessmentDate;
     }
@@ -119,6 +151,54 @@ public class RiskAssessment {
         this.processingTimeMs = processingTimeMs;
     }
 
+    public BigDecimal getLoanAmount() {
+        return loanAmount;
+    }
+
+    public void setLoanAmount(BigDecimal loanAmount) {
+        this.loanAmount = loanAmount;
+    }
+
+    public BigDecimal getIncome() {
+        return income;
+    }
+
+    public void setIncome(BigDecimal income) {
+        this.income = income;
+    }
+
+    public String getLoanPurpose() {
+        return loanPurpose;
+    }
+
+    public void setLoanPurpose(String loanPurpose) {
+        this.loanPurpose = loanPurpose;
+    }
+
+    public Double getInitialScoreWeight() {
+        return initialScoreWeight;
+    }
+
+    public void setInitialScoreWeight(Double initialScoreWeight) {
+        this.initialScoreWeight = initialScoreWeight;
+    }
+
+    public boolean isCreditReportStale() {
+        return creditReportStale;
+    }
+
+    public void setCreditReportStale(boolean creditReportStale) {
+        this.creditReportStale = creditReportStale;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public List<RiskFactor> getRiskFactors() {
         return riskFactors;
     }
@@ -1,7 +1,9 @@
 package com.example.riskassessmentservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
@@ -11,10 +13,15 @@ public class RiskFactor {
     @Id
     private UUID id;
 
+    @JsonIgnore // Back-reference; factors are serialized (e.g. into Redis) as part of their assessment
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assessment_id", nullable = false)
     private RiskAssessment assessment;
 
+    // risk_factors is partitioned like risk_assessments, so it carries the parent's partition key
+    @Column(name = "assessment_date", nullable = false, updatable = false)
+    private LocalDateTime assessmentDate;
+
     @Column(name = "factor_name")
     private String factorName;
 
@@ -27,11 +34,21 @@ public class RiskFactor {
     @Column(name = "contribution")
     private BigDecimal contribution;
 
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+
     // Constructors
     public RiskFactor() {
         this.id = UUID.randomUUID();
     }
 
+    @PrePersist
+    void inheritAssessmentDate() {
+        if (assessmentDate == null && assessment != null) {
+            assessmentDate = assessment.getAssessmentDate();
+        }
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -49,6 +66,14 @@ public class RiskFactor {
         this.assessment = assessment;
     }
 
+    public LocalDateTime getAssessmentDate() {
+        return assessmentDate;
+    }
+
+    public void setAssessmentDate(LocalDateTime assessmentDate) {
+        this.assessmentDate = assessmentDate;
+    }
+
     public String getFactorName() {
         return factorName;
     }
@@ -80,4 +105,12 @@ public class RiskFactor {
     public void setContribution(BigDecimal contribution) {
         this.contribution = contribution;
     }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
 }
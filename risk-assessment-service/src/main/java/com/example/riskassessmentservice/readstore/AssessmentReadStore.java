@@ -0,0 +1,162 @@
+package com.example.riskassessmentservice.readstore;
+
+import com.example.riskassessmentservice.model.RiskAssessment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Embedded on-disk store (H2 MVStore) with the latest assessment per applicationId, as JSON, materialized from
+// decision-events by DecisionEventMaterializer. Together with the assessments it keeps the next offset to
+// read per partition; both are written by the listener thread (assessment first, then offset) and made
+// durable by the same MVStore commit, so after a crash the replay resumes at most a few records early.
+// Commits happen in the background about once a second and on shutdown, where the store is closed cleanly
+// and a restart only replays what was produced since.
+// Reads are B-tree lookups in MVStore's page cache and never touch Redis or Postgres; a page that isn't cached
+// is read from the file, so lookups run on the persistence scheduler rather than the event loop.
+@Component
+public class AssessmentReadStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AssessmentReadStore.class);
+
+    private static final String ASSESSMENTS_MAP = "assessments";
+    private static final String OFFSETS_MAP = "offsets";
+
+    private final boolean enabled;
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final Scheduler persistenceScheduler;
+
+    private final MVStore store;
+    private final MVMap<String, byte[]> assessments;
+    private final MVMap<Integer, Long> offsets;
+    private final boolean restoredFromSnapshot;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public AssessmentReadStore(MeterRegistry meterRegistry,
+                               @Qualifier("persistenceScheduler") Scheduler persistenceScheduler,
+                               @Value("${risk.read-store.enabled:false}") boolean enabled,
+                               @Value("${risk.read-store.path:read-store/assessments.mv.db}") String path) {
+        this.enabled = enabled;
+        this.persistenceScheduler = persistenceScheduler;
+        this.path = Path.of(path);
+        // Same representation as the risk_assessment:* Redis values
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+
+        this.hitCounter = Counter.builder("read_store.lookups")
+            .tag("result", "hit")
+            .description("Assessment lookups answered from the local read store")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("read_store.lookups")
+            .tag("result", "miss")
+            .description("Assessment lookups for applications the local read store has no decision for")
+            .register(meterRegistry);
+
+        if (!enabled) {
+            this.store = null;
+            this.assessments = null;
+            this.offsets = null;
+            this.restoredFromSnapshot = false;
+            return;
+        }
+        try {
+            if (this.path.getParent() != null) {
+                Files.createDirectories(this.path.getParent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the read store directory for " + path, e);
+        }
+        this.restoredFromSnapshot = Files.exists(this.path);
+        this.store = new MVStore.Builder().fileName(path).compress().open();
+        this.assessments = store.openMap(ASSESSMENTS_MAP);
+        this.offsets = store.openMap(OFFSETS_MAP);
+
+        Gauge.builder("read_store.entries", assessments, MVMap::sizeAsLong)
+            .description("Applications in the local read store")
+            .register(meterRegistry);
+        Gauge.builder("read_store.size", store, mvStore -> mvStore.getFileStore().size())
+            .baseUnit("bytes")
+            .description("Size of the local read store file")
+            .register(meterRegistry);
+        log.info("Local read store {} opened with {} assessments{}", path, assessments.sizeAsLong(),
+                restoredFromSnapshot ? ", resuming decision-events at " + offsets : ", replaying decision-events from the beginning");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    boolean isRestoredFromSnapshot() {
+        return restoredFromSnapshot;
+    }
+
+    public Mono<RiskAssessment> find(UUID applicationId) {
+        return Mono.fromCallable(() -> {
+            byte[] json = assessments.get(applicationId.toString());
+            if (json == null) {
+                missCounter.increment();
+                return null;
+            }
+            hitCounter.increment();
+            return objectMapper.readValue(json, RiskAssessment.class);
+        }).subscribeOn(persistenceScheduler);
+    }
+
+    // Next offset to read from the partition, null if it has never been read
+    Long nextOffset(int partition) {
+        return offsets.get(partition);
+    }
+
+    // A null assessment (tombstone) removes the application
+    void apply(int partition, long offset, String applicationId, RiskAssessment assessment) {
+        if (applicationId != null) {
+            if (assessment == null) {
+                assessments.remove(applicationId);
+            } else {
+                try {
+                    assessments.put(applicationId, objectMapper.writeValueAsBytes(assessment));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        offsets.put(partition, offset + 1);
+    }
+
+    // Skips a record without changing the store (e.g. a decision event from before assessments were included)
+    void skip(int partition, long offset) {
+        offsets.put(partition, offset + 1);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store == null || store.isClosed()) {
+            return;
+        }
+        // Runs after the listener container has stopped, so the snapshot includes every applied record
+        log.info("Snapshotting local read store {} with {} assessments at {}", path, assessments.sizeAsLong(), offsets);
+        store.commit();
+        store.close();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.riskassessmentservice.readstore;
+
+import com.example.riskassessmentservice.dto.DecisionEvent;
+import com.example.riskassessmentservice.service.KafkaEventProducer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Materializes decision-events into the local read store (AssessmentReadStore).
+// - On assignment every partition is positioned at the offset stored in the snapshot, or at the beginning
+//   of the (compacted) topic when there is none, so a restart only replays what it missed.
+// - The restore is complete once no assigned partition has any lag left (checked per record, and when the
+//   container goes idle); read_store.restore records how long that took since startup.
+// - As an ApplicationRunner it holds readiness until the restore completes or restore-time-budget runs
+//   out, so a read pod doesn't answer with an incomplete store.
+@Component
+@Order(3)
+public class DecisionEventMaterializer implements ConsumerSeekAware, ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionEventMaterializer.class);
+
+    public static final String LISTENER_ID = "decisionEventsReadStoreListener";
+
+    private final AssessmentReadStore readStore;
+    private final MeterRegistry meterRegistry;
+    private final Duration restoreTimeBudget;
+
+    private final long startNanos = System.nanoTime();
+    private final CountDownLatch restored = new CountDownLatch(1);
+
+    private final Counter appliedCounter;
+    private final Counter skippedCounter;
+
+    public DecisionEventMaterializer(AssessmentReadStore readStore,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${risk.read-store.restore-time-budget:2m}") Duration restoreTimeBudget) {
+        this.readStore = readStore;
+        this.meterRegistry = meterRegistry;
+        this.restoreTimeBudget = restoreTimeBudget;
+
+        this.appliedCounter = Counter.builder("read_store.records")
+            .tag("status", "applied")
+            .description("decision-events records applied to the local read store")
+            .register(meterRegistry);
+        this.skippedCounter = Counter.builder("read_store.records")
+            .tag("status", "skipped")
+            .description("decision-events records without an assessment snapshot (produced before it was added)")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> {
+            Long next = readStore.nextOffset(partition.partition());
+            if (next != null) {
+                callback.seek(partition.topic(), partition.partition(), next);
+            } else {
+                callback.seekToBeginning(List.of(partition));
+            }
+        });
+        log.info("Local read store assigned {} decision-events partitions", assignments.size());
+    }
+
+    @KafkaListener(id = LISTENER_ID,
+                   idIsGroup = false, // Keep the per-instance group from decisionEventsConsumerFactory
+                   topics = KafkaEventProducer.DECISION_TOPIC,
+                   containerFactory = "decisionEventsListenerContainerFactory",
+                   autoStartup = "${risk.read-store.enabled:false}")
+    public void onDecisionEvent(ConsumerRecord<String, DecisionEvent> record, Consumer<?, ?> consumer) {
+        DecisionEvent event = record.value();
+        if (event != null && event.getAssessment() == null) {
+            readStore.skip(record.partition(), record.offset());
+            skippedCounter.increment();
+        } else {
+            readStore.apply(record.partition(), record.offset(), record.key(), event != null ? event.getAssessment() : null);
+            appliedCounter.increment();
+        }
+        if (restored.getCount() > 0 && caughtUp(consumer)) {
+            markRestored("caught up");
+        }
+    }
+
+    // Published on the consumer thread; also covers a store that is already up to date (no records at all)
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        if (restored.getCount() > 0 && !event.getConsumer().assignment().isEmpty() && caughtUp(event.getConsumer())) {
+            markRestored("idle");
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!readStore.isEnabled()) {
+            return;
+        }
+        if (!restored.await(restoreTimeBudget.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Local read store not restored within {}, accepting traffic while decision-events is still replayed", restoreTimeBudget);
+        }
+    }
+
+    // No lag left, and no fetched record waiting to be applied (the position moves per poll, not per record)
+    private boolean caughtUp(Consumer<?, ?> consumer) {
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isEmpty() || lag.getAsLong() > 0) {
+                return false;
+            }
+            Long next = readStore.nextOffset(partition.partition());
+            if (next != null && next < consumer.position(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void markRestored(String reason) {
+        if (restored.getCount() == 0) {
+            return;
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        Timer.builder("read_store.restore")
+            .tag("from", readStore.isRestoredFromSnapshot() ? "snapshot" : "empty")
+            .description("Time from startup until the local read store caught up with decision-events")
+            .register(meterRegistry)
+            .record(elapsed);
+        restored.countDown();
+        log.info("Local read store restored ({}) in {} ms", reason, elapsed.toMillis());
+    }
+}
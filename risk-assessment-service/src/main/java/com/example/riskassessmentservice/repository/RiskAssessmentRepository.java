@@ -1,10 +1,16 @@
 package com.example.riskassessmentservice.repository;
 
 import com.example.riskassessmentservice.model.RiskAssessment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional; // Added import
 import java.util.UUID;
 
@@ -20,5 +26,19 @@ public interface RiskAssessmentRepository extends JpaRepository<RiskAssessment,
     // Mono<RiskAssessment> findByApplicationId(UUID applicationId);
     // This would require R2DBC or careful handling with Project Reactor's publishOn().
 
+    // Factors are fetched eagerly so the entity can be serialized (cached) outside the persistence context
+    @EntityGraph(attributePaths = "riskFactors")
     Optional<RiskAssessment> findByApplicationId(UUID applicationId);
+
+    // Most recent assessments first, as keyset pages over idx_risk_assessments_assessment_date_id; ids only
+    // so paging doesn't happen in memory over a fetch join
+    @Query(value = "SELECT id FROM risk_assessments ORDER BY assessment_date DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<UUID> findRecentIds(@Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM risk_assessments WHERE (assessment_date, id) < (:assessmentDate, :id)"
+            + " ORDER BY assessment_date DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<UUID> findRecentIdsBefore(@Param("assessmentDate") LocalDateTime assessmentDate, @Param("id") UUID id, @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = "riskFactors")
+    List<RiskAssessment> findByIdIn(Collection<UUID> ids);
 }
@@ -0,0 +1,436 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.dto.RescoringJobStatus;
+import com.example.riskassessmentservice.model.RiskAssessment;
+import com.example.riskassessmentservice.repository.RiskAssessmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Re-scores every stored assessment with the current RiskScoringPolicy, e.g. after the weights or the
+// approval threshold changed. Only the persisted factor values are used, so the Central Bank API is never called.
+// - Rows are read in keyset pages of chunk-size rows ((assessment_date, id) > last row, LIMIT), each an index
+//   range scan on idx_risk_assessments_assessment_date_id in its own short statement, so a throttled run
+//   never holds a snapshot open (which would pin xmin and hold back vacuum for the whole run).
+// - Each chunk is re-scored in parallel on a dedicated ForkJoinPool.
+// - Changed rows are written back with JDBC batch updates in their own transaction, together with the
+//   checkpoint, so a stopped or crashed job resumes right after the last committed chunk.
+// - Once committed, a DecisionEvent is published for every changed row, so everything fed from
+//   decision-events (customer obligations, local read stores) follows the new decisions.
+// - A rows/second limit (adjustable at runtime) keeps the job from starving live traffic of DB capacity.
+@Service
+@Profile("!read-pod")
+public class BulkRescoringJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRescoringJob.class);
+
+    private static final String RISK_ASSESSMENT_CACHE_KEY_PREFIX = "risk_assessment:";
+    private static final Duration CACHE_INVALIDATION_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration DECISION_EVENT_SEND_TIMEOUT = Duration.ofSeconds(30);
+    private static final Timestamp KEYSET_START = Timestamp.valueOf("1970-01-01 00:00:00");
+    private static final UUID KEYSET_START_ID = new UUID(0, 0);
+
+    // One page of assessments with their four factor values pivoted into columns; ERROR assessments have no
+    // usable factors. The factors are aggregated per row (LATERAL), so the LIMIT applies to the index scan.
+    private static final String PAGE_SQL = """
+            SELECT ra.id, ra.application_id, ra.assessment_date, ra.initial_score_weight, ra.risk_score, ra.decision,
+                   f.credit_score, f.debt_ratio, f.collateral, f.fraud
+            FROM risk_assessments ra
+            LEFT JOIN LATERAL (
+                SELECT MAX(factor_value) FILTER (WHERE factor_name = 'CREDIT_SCORE') AS credit_score,
+                       MAX(factor_value) FILTER (WHERE factor_name = 'DEBT_RATIO') AS debt_ratio,
+                       MAX(factor_value) FILTER (WHERE factor_name = 'COLLATERAL') AS collateral,
+                       MAX(factor_value) FILTER (WHERE factor_name = 'FRAUD') AS fraud
+                FROM risk_factors
+                WHERE assessment_id = ra.id AND assessment_date = ra.assessment_date
+            ) f ON TRUE
+            WHERE ra.decision IN ('APPROVED', 'REJECTED')
+              AND (ra.assessment_date, ra.id) > (?, ?)
+            ORDER BY ra.assessment_date, ra.id
+            LIMIT ?
+            """;
+    private static final String UPDATE_ASSESSMENT_SQL =
+            "UPDATE risk_assessments SET risk_score = ?, decision = ?, decision_reason = ?, updated_at = ? WHERE id = ? AND assessment_date = ?";
+    private static final String UPDATE_FACTOR_SQL =
+            "UPDATE risk_factors SET weight = ?, contribution = ? WHERE assessment_id = ? AND assessment_date = ? AND factor_name = ?";
+    private static final String UPSERT_CHECKPOINT_SQL = """
+            INSERT INTO rescoring_checkpoints (job_id, policy_version, last_assessment_date, last_assessment_id, rows_scanned, rows_updated, status, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (job_id) DO UPDATE SET last_assessment_date = EXCLUDED.last_assessment_date,
+                last_assessment_id = EXCLUDED.last_assessment_id, rows_scanned = EXCLUDED.rows_scanned,
+                rows_updated = EXCLUDED.rows_updated, status = EXCLUDED.status, updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final RiskScoringPolicy scoringPolicy;
+    private final RiskAssessmentRepository riskAssessmentRepository;
+    private final KafkaEventProducer kafkaEventProducer;
+    private final ReactiveRedisTemplate<String, RiskAssessment> riskAssessmentRedisTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private volatile int maxRowsPerSecond;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "bulk-rescoring");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // State of the current (or last) run
+    private volatile String jobId;
+    private volatile String state = "IDLE";
+    private volatile boolean stopRequested;
+    private volatile double rowsPerSecond;
+    private volatile LocalDateTime checkpointDate;
+    private volatile UUID checkpointId;
+    private final AtomicLong rowsScanned = new AtomicLong();
+    private final AtomicLong rowsUpdated = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+
+    private final Counter rowsScannedCounter;
+    private final Counter rowsUpdatedCounter;
+    private final Counter rowsSkippedCounter;
+
+    public BulkRescoringJob(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            RiskScoringPolicy scoringPolicy,
+                            RiskAssessmentRepository riskAssessmentRepository,
+                            KafkaEventProducer kafkaEventProducer,
+                            ReactiveRedisTemplate<String, RiskAssessment> riskAssessmentRedisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${risk.rescoring.chunk-size:1000}") int chunkSize,
+                            @Value("${risk.rescoring.parallelism:0}") int parallelism,
+                            @Value("${risk.rescoring.max-rows-per-second:2000}") int maxRowsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.scoringPolicy = scoringPolicy;
+        this.riskAssessmentRepository = riskAssessmentRepository;
+        this.kafkaEventProducer = kafkaEventProducer;
+        this.riskAssessmentRedisTemplate = riskAssessmentRedisTemplate;
+        this.chunkSize = chunkSize;
+        // 0 = half the cores, leaving the rest to live assessments
+        this.parallelism = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxRowsPerSecond = maxRowsPerSecond;
+
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.rowsScannedCounter = rowsCounter(meterRegistry, "scanned");
+        this.rowsUpdatedCounter = rowsCounter(meterRegistry, "updated");
+        this.rowsSkippedCounter = rowsCounter(meterRegistry, "skipped");
+        Gauge.builder("rescoring.rows_per_second", this, job -> job.rowsPerSecond)
+            .description("Throughput of the running bulk re-scoring job")
+            .register(meterRegistry);
+    }
+
+    // Starts a new run or resumes the one with the same job ID from its checkpoint. The default job ID is
+    // derived from the policy version, so re-running after a weight change starts from the beginning.
+    public synchronized RescoringJobStatus start(String requestedJobId) {
+        if ("RUNNING".equals(state) || "STOPPING".equals(state)) {
+            throw new IllegalStateException("Re-scoring job " + jobId + " is already running");
+        }
+        String id = requestedJobId != null && !requestedJobId.isBlank() ? requestedJobId : "rescore-" + scoringPolicy.version();
+        Checkpoint checkpoint = loadCheckpoint(id);
+        if (checkpoint != null && !checkpoint.policyVersion().equals(scoringPolicy.version())) {
+            throw new IllegalStateException("Checkpoint of job " + id + " was written with policy " + checkpoint.policyVersion()
+                    + ", current policy is " + scoringPolicy.version() + "; use a new job ID");
+        }
+
+        jobId = id;
+        stopRequested = false;
+        rowsPerSecond = 0;
+        rowsSkipped.set(0);
+        rowsScanned.set(checkpoint != null ? checkpoint.rowsScanned() : 0);
+        rowsUpdated.set(checkpoint != null ? checkpoint.rowsUpdated() : 0);
+        checkpointDate = checkpoint != null ? checkpoint.lastAssessmentDate() : null;
+        checkpointId = checkpoint != null ? checkpoint.lastAssessmentId() : null;
+        if (checkpoint != null && "COMPLETED".equals(checkpoint.status())) {
+            state = "COMPLETED";
+            log.info("Re-scoring job {} already completed, nothing to do", id);
+            return status();
+        }
+
+        state = "RUNNING";
+        log.info("{} re-scoring job {} with policy {} (chunk size {}, parallelism {}, max {} rows/s)",
+                checkpoint != null ? "Resuming" : "Starting", id, scoringPolicy.version(), chunkSize, parallelism, maxRowsPerSecond);
+        runner.submit(this::run);
+        return status();
+    }
+
+    public RescoringJobStatus stop() {
+        if ("RUNNING".equals(state)) {
+            log.info("Stopping re-scoring job {} after the current chunk", jobId);
+            stopRequested = true;
+            state = "STOPPING";
+        }
+        return status();
+    }
+
+    // 0 disables throttling; takes effect from the next chunk
+    public RescoringJobStatus throttle(int maxRowsPerSecond) {
+        log.info("Re-scoring throughput limit changed from {} to {} rows/s", this.maxRowsPerSecond, maxRowsPerSecond);
+        this.maxRowsPerSecond = Math.max(0, maxRowsPerSecond);
+        return status();
+    }
+
+    public RescoringJobStatus status() {
+        return new RescoringJobStatus(jobId, state, scoringPolicy.version(), rowsScanned.get(), rowsUpdated.get(), rowsSkipped.get(),
+                rowsPerSecond, maxRowsPerSecond, checkpointDate, checkpointId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        runner.shutdown();
+    }
+
+    private void run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Timestamp fromDate = checkpointDate != null ? Timestamp.valueOf(checkpointDate) : KEYSET_START;
+            UUID fromId = checkpointId != null ? checkpointId : KEYSET_START_ID;
+            while (true) {
+                if (stopRequested) {
+                    throw new RescoringStoppedException();
+                }
+                List<StoredScore> chunk = jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> mapRow(rs), fromDate, fromId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                processChunk(chunk, pool);
+                StoredScore last = chunk.get(chunk.size() - 1);
+                fromDate = Timestamp.valueOf(last.assessmentDate());
+                fromId = last.id();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            saveCheckpoint("COMPLETED");
+            state = "COMPLETED";
+            log.info("Re-scoring job {} completed: {} rows scanned, {} updated, {} skipped", jobId, rowsScanned.get(), rowsUpdated.get(), rowsSkipped.get());
+        } catch (RescoringStoppedException e) {
+            saveCheckpoint("PAUSED");
+            state = "PAUSED";
+            log.info("Re-scoring job {} paused at {} / {}", jobId, checkpointDate, checkpointId);
+        } catch (Exception e) {
+            state = "FAILED";
+            log.error("Re-scoring job {} failed, resume it to continue from the last checkpoint: {}", jobId, e.getMessage(), e);
+        } finally {
+            pool.shutdown();
+            rowsPerSecond = 0;
+        }
+    }
+
+    private void processChunk(List<StoredScore> chunk, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        List<Rescored> changed = pool.submit(() -> chunk.parallelStream()
+                .map(this::rescore)
+                .filter(Objects::nonNull)
+                .toList())
+            .join();
+
+        StoredScore last = chunk.get(chunk.size() - 1);
+        batchTransaction.executeWithoutResult(status -> {
+            writeBack(changed);
+            checkpointDate = last.assessmentDate();
+            checkpointId = last.id();
+            rowsScanned.addAndGet(chunk.size());
+            rowsUpdated.addAndGet(changed.size());
+            saveCheckpoint("RUNNING");
+        });
+        rowsScannedCounter.increment(chunk.size());
+        rowsUpdatedCounter.increment(changed.size());
+        invalidateCache(changed);
+        publishDecisions(changed);
+
+        throttle(chunk.size(), start);
+        rowsPerSecond = chunk.size() / Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+    }
+
+    // Null when the stored score is still current or the row can't be re-scored
+    private Rescored rescore(StoredScore row) {
+        if (row.creditScore() == null || row.debtRatio() == null || row.collateral() == null || row.fraud() == null) {
+            rowsSkipped.incrementAndGet();
+            rowsSkippedCounter.increment();
+            return null;
+        }
+        RiskScoringPolicy.Score score = scoringPolicy.score(new RiskScoringPolicy.ScoringInputs(
+                row.creditScore().intValue(), "OK", row.debtRatio(), row.collateral(), row.fraud(), row.initialScoreWeight()));
+        boolean unchanged = row.riskScore() != null && score.finalScore().compareTo(row.riskScore()) == 0
+                && score.decision().equals(row.decision());
+        return unchanged ? null : new Rescored(row, score);
+    }
+
+    private void writeBack(List<Rescored> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> assessmentArgs = new ArrayList<>(changed.size());
+        List<Object[]> factorArgs = new ArrayList<>(changed.size() * 4);
+        for (Rescored rescored : changed) {
+            StoredScore row = rescored.row();
+            RiskScoringPolicy.Score score = rescored.score();
+            Timestamp assessmentDate = Timestamp.valueOf(row.assessmentDate());
+            assessmentArgs.add(new Object[] {score.finalScore(), score.decision(), score.decisionReason(), now, row.id(), assessmentDate});
+            factorArgs.add(factorArgs(scoringPolicy.creditScoreWeight(), score.creditComponent(), row, assessmentDate, RiskAssessmentService.FACTOR_CREDIT_SCORE));
+            factorArgs.add(factorArgs(scoringPolicy.debtRatioWeight(), score.debtRatioComponent(), row, assessmentDate, RiskAssessmentService.FACTOR_DEBT_RATIO));
+            factorArgs.add(factorArgs(scoringPolicy.collateralWeight(), score.collateralComponent(), row, assessmentDate, RiskAssessmentService.FACTOR_COLLATERAL));
+            factorArgs.add(factorArgs(scoringPolicy.fraudWeight(), score.fraudComponent(), row, assessmentDate, RiskAssessmentService.FACTOR_FRAUD));
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ASSESSMENT_SQL, assessmentArgs);
+        jdbcTemplate.batchUpdate(UPDATE_FACTOR_SQL, factorArgs);
+    }
+
+    private static Object[] factorArgs(BigDecimal weight, BigDecimal contribution, StoredScore row, Timestamp assessmentDate, String factorName) {
+        return new Object[] {weight, contribution.setScale(2, RoundingMode.HALF_UP), row.id(), assessmentDate, factorName};
+    }
+
+    // Cached copies of re-scored assessments would otherwise serve the old decision for up to 24 hours
+    private void invalidateCache(List<Rescored> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        String[] keys = changed.stream()
+            .map(rescored -> RISK_ASSESSMENT_CACHE_KEY_PREFIX + rescored.row().applicationId())
+            .toArray(String[]::new);
+        try {
+            riskAssessmentRedisTemplate.delete(keys).block(CACHE_INVALIDATION_TIMEOUT);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate {} cached assessments after re-scoring: {}", keys.length, e.getMessage());
+        }
+    }
+
+    // After the commit, so no consumer sees a decision that could still roll back. The checkpoint has already
+    // moved past these rows, so a failed publish fails the job with the affected applications logged; a
+    // reassessment of those applications publishes their current decision again.
+    private void publishDecisions(List<Rescored> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = changed.stream().map(rescored -> rescored.row().id()).toList();
+        List<RiskAssessment> assessments = riskAssessmentRepository.findByIdIn(ids);
+        List<CompletableFuture<?>> sends = assessments.stream()
+            .<CompletableFuture<?>>map(kafkaEventProducer::sendDecisionEvent)
+            .toList();
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(DECISION_EVENT_SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing re-scored decisions", e);
+        } catch (Exception e) {
+            List<UUID> unpublished = new ArrayList<>();
+            for (int i = 0; i < sends.size(); i++) {
+                if (!sends.get(i).isDone() || sends.get(i).isCompletedExceptionally()) {
+                    unpublished.add(assessments.get(i).getApplicationId());
+                }
+            }
+            throw new IllegalStateException("Decision events of re-scored applications " + unpublished + " were not published", e);
+        }
+    }
+
+    private void throttle(int rows, long chunkStartNanos) {
+        int limit = maxRowsPerSecond;
+        if (limit <= 0) {
+            return;
+        }
+        long minimumNanos = rows * 1_000_000_000L / limit;
+        long remainingNanos = minimumNanos - (System.nanoTime() - chunkStartNanos);
+        if (remainingNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopRequested = true;
+            }
+        }
+    }
+
+    private void saveCheckpoint(String status) {
+        jdbcTemplate.update(UPSERT_CHECKPOINT_SQL, jobId, scoringPolicy.version(),
+                checkpointDate != null ? Timestamp.valueOf(checkpointDate) : null, checkpointId,
+                rowsScanned.get(), rowsUpdated.get(), status);
+    }
+
+    private Checkpoint loadCheckpoint(String id) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(
+                "SELECT policy_version, last_assessment_date, last_assessment_id, rows_scanned, rows_updated, status FROM rescoring_checkpoints WHERE job_id = ?",
+                (rs, rowNum) -> {
+                    Timestamp lastDate = rs.getTimestamp("last_assessment_date");
+                    return new Checkpoint(rs.getString("policy_version"),
+                            lastDate != null ? lastDate.toLocalDateTime() : null,
+                            rs.getObject("last_assessment_id", UUID.class),
+                            rs.getLong("rows_scanned"), rs.getLong("rows_updated"), rs.getString("status"));
+                }, id);
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    private static StoredScore mapRow(ResultSet rs) throws SQLException {
+        double weight = rs.getDouble("initial_score_weight");
+        Double initialScoreWeight = rs.wasNull() ? null : weight;
+        return new StoredScore(
+                rs.getObject("id", UUID.class),
+                rs.getObject("application_id", UUID.class),
+                rs.getTimestamp("assessment_date").toLocalDateTime(),
+                initialScoreWeight,
+                rs.getBigDecimal("risk_score"),
+                rs.getString("decision"),
+                rs.getBigDecimal("credit_score"),
+                rs.getBigDecimal("debt_ratio"),
+                rs.getBigDecimal("collateral"),
+                rs.getBigDecimal("fraud"));
+    }
+
+    private static Counter rowsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("rescoring.rows")
+            .tag("outcome", outcome)
+            .description("Rows processed by the bulk re-scoring job")
+            .register(meterRegistry);
+    }
+
+    private record StoredScore(UUID id, UUID applicationId, LocalDateTime assessmentDate, Double initialScoreWeight,
+                               BigDecimal riskScore, String decision,
+                               BigDecimal creditScore, BigDecimal debtRatio, BigDecimal collateral, BigDecimal fraud) {}
+
+    private record Rescored(StoredScore row, RiskScoringPolicy.Score score) {}
+
+    private record Checkpoint(String policyVersion, LocalDateTime lastAssessmentDate, UUID lastAssessmentId,
+                              long rowsScanned, long rowsUpdated, String status) {}
+
+    private static class RescoringStoppedException extends RuntimeException {
+        RescoringStoppedException() {
+            super("Re-scoring stopped on request", null, false, false);
+        }
+    }
+}
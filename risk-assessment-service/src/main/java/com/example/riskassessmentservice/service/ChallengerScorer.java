@@ -0,0 +1,11 @@
+package com.example.riskassessmentservice.service;
+
+// A candidate scoring model run in shadow next to the champion (RiskScoringPolicy), see ShadowScoringService.
+// Implementations are Spring beans selected by name in risk.shadow.challengers; they get the same factor
+// values as the champion and must be pure and thread-safe. Their results never affect a decision.
+public interface ChallengerScorer {
+
+    String name();
+
+    RiskScoringPolicy.Score score(RiskScoringPolicy.ScoringInputs inputs);
+}
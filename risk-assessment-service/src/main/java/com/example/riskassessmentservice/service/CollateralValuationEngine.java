@@ -0,0 +1,145 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.collateral.CollateralTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Collateral valuation from the LTV / haircut reference table (see CollateralTable). The collateral a loan
+// implies is loanAmount / maxLtv, valued after the haircut: verified = loanAmount / maxLtv * (1 - haircut).
+// Rows are matched from most to least specific: (purpose, region, asset type), (purpose, region, *),
+// (purpose, *, *), (*, *, *); without a table or a matching row the former flat 80% of the loan amount is used.
+// The table file is polled and a new version (written with an atomic rename, e.g. by CollateralTableWriter)
+// is mapped and validated off the scoring path, then swapped in with a single volatile write.
+@Component
+@Profile("!read-pod")
+public class CollateralValuationEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CollateralValuationEngine.class);
+
+    private static final BigDecimal DEFAULT_ADVANCE_RATE = BigDecimal.valueOf(0.8);
+
+    enum Match { EXACT, REGION, PURPOSE, GLOBAL, DEFAULT }
+
+    public record CollateralValuation(BigDecimal verifiedValue, String details) {}
+
+    private final Path tablePath;
+    private final Counter[] matchCounters = new Counter[Match.values().length];
+    private final Counter reloadSuccessCounter;
+    private final Counter reloadErrorCounter;
+
+    private volatile CollateralTable table;
+    private FileVersion lastSeen; // Last file loaded or rejected; only touched by reloadIfChanged
+
+    public CollateralValuationEngine(MeterRegistry meterRegistry,
+                                     @Value("${risk.collateral.table-path:}") String tablePath) {
+        this.tablePath = tablePath == null || tablePath.isBlank() ? null : Path.of(tablePath);
+
+        for (Match match : Match.values()) {
+            matchCounters[match.ordinal()] = Counter.builder("collateral.valuations")
+                .tag("match", match.name().toLowerCase())
+                .description("Collateral valuations by the most specific reference table row that matched")
+                .register(meterRegistry);
+        }
+        this.reloadSuccessCounter = Counter.builder("collateral.table.reloads")
+            .tag("status", "success")
+            .description("Collateral reference table versions mapped and swapped in")
+            .register(meterRegistry);
+        this.reloadErrorCounter = Counter.builder("collateral.table.reloads")
+            .tag("status", "error")
+            .description("Collateral reference table files rejected (the previous version stays active)")
+            .register(meterRegistry);
+        Gauge.builder("collateral.table.version", this, engine -> engine.table != null ? engine.table.version() : -1)
+            .description("Version of the active collateral reference table (-1 = none, flat 80% used)")
+            .register(meterRegistry);
+        Gauge.builder("collateral.table.rows", this, engine -> engine.table != null ? engine.table.rowCount() : 0)
+            .description("Rows in the active collateral reference table")
+            .register(meterRegistry);
+
+        if (this.tablePath == null) {
+            log.info("No collateral table configured (risk.collateral.table-path), valuing collateral at 80% of the loan amount");
+        } else {
+            reloadIfChanged();
+        }
+    }
+
+    public CollateralValuation valuate(BigDecimal loanAmount, String loanPurpose, String region, String assetType) {
+        CollateralTable current = table;
+        int row = -1;
+        Match match = Match.DEFAULT;
+        if (current != null) {
+            if ((row = current.find(CollateralTable.key(loanPurpose, region, assetType))) >= 0) {
+                match = Match.EXACT;
+            } else if ((row = current.find(CollateralTable.key(loanPurpose, region, CollateralTable.WILDCARD))) >= 0) {
+                match = Match.REGION;
+            } else if ((row = current.find(CollateralTable.key(loanPurpose, CollateralTable.WILDCARD, CollateralTable.WILDCARD))) >= 0) {
+                match = Match.PURPOSE;
+            } else if ((row = current.find(CollateralTable.key(CollateralTable.WILDCARD, CollateralTable.WILDCARD, CollateralTable.WILDCARD))) >= 0) {
+                match = Match.GLOBAL;
+            }
+        }
+        matchCounters[match.ordinal()].increment();
+
+        if (match == Match.DEFAULT) {
+            return new CollateralValuation(loanAmount.multiply(DEFAULT_ADVANCE_RATE), "Flat 80% of loan amount (no collateral table row)");
+        }
+        float maxLtv = current.maxLtv(row);
+        float haircut = current.haircut(row);
+        BigDecimal advanceRate = BigDecimal.valueOf((1 - (double) haircut) / maxLtv);
+        return new CollateralValuation(loanAmount.multiply(advanceRate).setScale(2, RoundingMode.HALF_UP),
+                "Max LTV " + maxLtv + ", haircut " + haircut + " (table v" + current.version() + ", " + match.name().toLowerCase() + " match)");
+    }
+
+    @Scheduled(fixedDelayString = "${risk.collateral.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        if (tablePath == null) {
+            return;
+        }
+        FileVersion current = null;
+        try {
+            current = FileVersion.of(Files.readAttributes(tablePath, BasicFileAttributes.class));
+            if (current.equals(lastSeen)) {
+                return;
+            }
+            CollateralTable loaded = CollateralTable.open(tablePath);
+            CollateralTable previous = table;
+            table = loaded;
+            lastSeen = current;
+            reloadSuccessCounter.increment();
+            log.info("Collateral table v{} ({} rows) mapped from {}{}", loaded.version(), loaded.rowCount(), tablePath,
+                    previous != null ? ", replacing v" + previous.version() : "");
+        } catch (NoSuchFileException e) {
+            if (table == null) {
+                log.warn("Collateral table {} not found, valuing collateral at 80% of the loan amount", tablePath);
+            }
+        } catch (IOException | RuntimeException e) {
+            reloadErrorCounter.increment();
+            log.error("Rejected collateral table {}, keeping {}: {}", tablePath,
+                    table != null ? "v" + table.version() : "the flat 80% valuation", e.getMessage());
+            // Not retried until the file changes again
+            lastSeen = current;
+        }
+    }
+
+    // A rename over the file changes the file key (inode); an in-place rewrite changes mtime or size
+    private record FileVersion(Object fileKey, long modifiedMillis, long size) {
+        static FileVersion of(BasicFileAttributes attributes) {
+            return new FileVersion(attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.riskassessmentservice.service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Challenger: the champion's components, weights and threshold, but the debt ratio scores on a linear scale
+// (100 at 0%, 0 at zero-score-debt-ratio and above) instead of the <30 / 30-50 / >50 steps, now that the
+// ratio comes from the customer's actual obligations (DebtToIncomeEngine).
+@Component
+@Profile("!read-pod")
+public class ContinuousDebtRatioChallenger implements ChallengerScorer {
+
+    public static final String NAME = "continuous-debt-ratio";
+
+    private static final double ZERO_SCORE_DEBT_RATIO = 60.0;
+
+    private final RiskScoringPolicy champion;
+
+    public ContinuousDebtRatioChallenger(RiskScoringPolicy champion) {
+        this.champion = champion;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public RiskScoringPolicy.Score score(RiskScoringPolicy.ScoringInputs inputs) {
+        return champion.combine(inputs, champion.creditComponent(inputs), debtRatioComponent(inputs),
+                champion.collateralComponent(inputs), champion.fraudComponent(inputs));
+    }
+
+    private BigDecimal debtRatioComponent(RiskScoringPolicy.ScoringInputs inputs) {
+        double debtRatio = inputs.debtRatioPercentage().doubleValue();
+        double debtRatioScoreValue = Math.max(0, 100 * (1 - debtRatio / ZERO_SCORE_DEBT_RATIO));
+        return BigDecimal.valueOf(debtRatioScoreValue).multiply(champion.debtRatioWeight());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.client.CentralBankApiClient;
+import com.example.riskassessmentservice.client.CentralBankApiClient.PrefetchOutcome;
+import com.example.riskassessmentservice.dto.ApplicationSubmittedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Warms the credit report cache when an application is submitted, so that by the time initial scoring
+// publishes to scoring-events the Central Bank API round trip is already done.
+// Prefetching is strictly lower priority than scoring: it is skipped while the centralBankApi circuit
+// isn't closed or the bulkhead is down to reserved-permits free permits, and at most max-in-flight
+// prefetches run at once (extra events are dropped, not queued). A scoring miss that arrives while the
+// prefetch is still running joins it through the EarlyRefreshCoordinator instead of calling the API again.
+// Effectiveness: central_bank_api.prefetch{outcome=used} vs {outcome=wasted} (cache TTL ran out unread).
+@Component
+@Profile("!read-pod")
+public class CreditReportPrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CreditReportPrefetcher.class);
+
+    public static final String LISTENER_ID = "loanApplicationsPrefetchListener";
+
+    private final CentralBankApiClient centralBankApiClient;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int reservedPermits;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<PrefetchOutcome, Counter> outcomeCounters = new EnumMap<>(PrefetchOutcome.class);
+    private final Counter droppedCounter;
+    private final Counter wastedCounter;
+
+    public CreditReportPrefetcher(CentralBankApiClient centralBankApiClient,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${risk.prefetch.enabled:true}") boolean enabled,
+                                  @Value("${risk.prefetch.max-in-flight:4}") int maxInFlight,
+                                  @Value("${risk.prefetch.reserved-permits:5}") int reservedPermits) {
+        this.centralBankApiClient = centralBankApiClient;
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.reservedPermits = reservedPermits;
+
+        for (PrefetchOutcome outcome : PrefetchOutcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("central_bank_api.prefetch")
+                .tag("outcome", outcome.name().toLowerCase())
+                .description("Credit report prefetches triggered by loan-applications events, by outcome")
+                .register(meterRegistry));
+        }
+        this.droppedCounter = Counter.builder("central_bank_api.prefetch")
+            .tag("outcome", "dropped")
+            .description("Prefetches not started because max-in-flight prefetches were already running")
+            .register(meterRegistry);
+        this.wastedCounter = Counter.builder("central_bank_api.prefetch")
+            .tag("outcome", "wasted")
+            .description("Prefetched credit reports that expired from the cache without being used")
+            .register(meterRegistry);
+        Gauge.builder("central_bank_api.prefetch.in_flight", inFlight, AtomicInteger::get)
+            .description("Credit report prefetches currently running")
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(id = LISTENER_ID,
+                   topics = "loan-applications",
+                   containerFactory = "loanApplicationsListenerContainerFactory",
+                   autoStartup = "false") // Started after warm-up by KafkaListenerStartupRunner when enabled
+    public void onLoanApplicationEvent(@Payload ApplicationSubmittedEvent event) {
+        if (!enabled || !ApplicationSubmittedEvent.TYPE.equals(event.getEventType()) || event.getCustomerId() == null) {
+            return;
+        }
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            droppedCounter.increment();
+            log.debug("Dropping credit report prefetch for application {}: {} prefetches in flight", event.getApplicationId(), maxInFlight);
+            return;
+        }
+        // Fire and forget: the listener thread never waits for the Central Bank API
+        centralBankApiClient.prefetchCreditReport(event.getCustomerId(), event.getApplicationId(), reservedPermits)
+            .doFinally(signal -> inFlight.decrementAndGet())
+            .subscribe(outcome -> {
+                outcomeCounters.get(outcome).increment();
+                log.debug("Credit report prefetch for application {} (customer {}): {}", event.getApplicationId(), event.getCustomerId(), outcome);
+            });
+    }
+
+    @Scheduled(fixedDelayString = "${risk.prefetch.sweep-interval-ms:60000}")
+    public void sweepUnusedPrefetches() {
+        if (!enabled) {
+            return;
+        }
+        centralBankApiClient.sweepUnusedPrefetches()
+            .subscribe(
+                expired -> wastedCounter.increment(expired),
+                error -> log.warn("Failed to sweep unused credit report prefetches: {}", error.getMessage()));
+    }
+}
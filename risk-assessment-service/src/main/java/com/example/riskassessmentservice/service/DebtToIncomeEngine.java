@@ -0,0 +1,262 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.dto.DecisionEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Debt-to-income ratio from the customer's existing obligations plus the requested loan's monthly payment.
+// Existing obligations are the monthly payments of the customer's previously APPROVED loans, kept per
+// customer in the Redis hash customer_obligations:<customerId> (one field per application). The aggregate is
+// maintained incrementally as decision events are produced: APPROVED puts the application's payment,
+// any other decision removes it, so redelivered events and reassessments that flip a decision are idempotent.
+// Lookups are served from a local cache holding each customer's payments and their total (one map lookup);
+// Redis is read once per customer per cache-ttl, which also bounds how long another pod's decisions go unseen.
+// Loan terms aren't part of the events, so payments are annuities over assumed-term-months at assumed-annual-rate.
+// Each field is stored as <payment>;<end epoch millis>, the end being the approval plus the assumed term: loads
+// skip (and delete) loans that have ended, and every approval moves the hash's expiry to its loan's end, so a
+// customer's hash goes away once the last loan has been paid off.
+@Component
+@Profile("!read-pod")
+public class DebtToIncomeEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DebtToIncomeEngine.class);
+
+    private static final String REDIS_KEY_PREFIX = "customer_obligations:";
+    private static final String DECISION_APPROVED = "APPROVED";
+    private static final Duration REDIS_TIMEOUT = Duration.ofSeconds(2);
+    private static final char END_SEPARATOR = ';';
+
+    public record DebtToIncome(BigDecimal debtRatioPercentage, String details) {}
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Cache<String, Obligations> obligationsCache;
+    private final int assumedTermMonths;
+    private final Duration loanTerm;
+    private final double monthlyRate;
+    private final BigDecimal fallbackObligationRatio;
+
+    private final Counter cacheHitCounter;
+    private final Counter redisLoadCounter;
+    private final Counter fallbackCounter;
+    private final Counter decisionsAppliedCounter;
+    private final Counter redisWriteErrorCounter;
+
+    public DebtToIncomeEngine(ReactiveStringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${risk.dti.max-cached-customers:100000}") long maxCachedCustomers,
+                              @Value("${risk.dti.cache-ttl:60s}") Duration cacheTtl,
+                              @Value("${risk.dti.assumed-term-months:60}") int assumedTermMonths,
+                              @Value("${risk.dti.assumed-annual-rate:0.08}") double assumedAnnualRate,
+                              @Value("${risk.dti.fallback-obligation-ratio:0.3}") BigDecimal fallbackObligationRatio) {
+        this.redisTemplate = redisTemplate;
+        this.obligationsCache = Caffeine.newBuilder()
+            .maximumSize(maxCachedCustomers)
+            .expireAfterWrite(cacheTtl)
+            .build();
+        this.assumedTermMonths = assumedTermMonths;
+        this.loanTerm = ChronoUnit.MONTHS.getDuration().multipliedBy(assumedTermMonths);
+        this.monthlyRate = assumedAnnualRate / 12;
+        this.fallbackObligationRatio = fallbackObligationRatio;
+
+        this.cacheHitCounter = Counter.builder("dti.obligations.lookups")
+            .tag("source", "cache")
+            .description("Existing-obligation lookups answered from the local cache")
+            .register(meterRegistry);
+        this.redisLoadCounter = Counter.builder("dti.obligations.lookups")
+            .tag("source", "redis")
+            .description("Existing-obligation lookups loaded from Redis")
+            .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("dti.obligations.lookups")
+            .tag("source", "fallback")
+            .description("Existing-obligation lookups that fell back to the flat share of income (Redis unavailable)")
+            .register(meterRegistry);
+        this.decisionsAppliedCounter = Counter.builder("dti.obligations.updates")
+            .tag("status", "success")
+            .description("Decision events applied to the per-customer obligation aggregates")
+            .register(meterRegistry);
+        this.redisWriteErrorCounter = Counter.builder("dti.obligations.updates")
+            .tag("status", "error")
+            .description("Decision events that could not be applied to the Redis obligation aggregates")
+            .register(meterRegistry);
+        Gauge.builder("dti.obligations.cached_customers", obligationsCache, Cache::estimatedSize)
+            .description("Customers whose obligations are held in the local cache")
+            .register(meterRegistry);
+    }
+
+    // The application's own payment is left out of the existing obligations, so reassessing an approved
+    // application (or rescoring a redelivered event) doesn't count its loan twice
+    public Mono<DebtToIncome> assess(UUID applicationId, String customerId, BigDecimal monthlyIncome, BigDecimal loanAmount) {
+        BigDecimal newPayment = monthlyPayment(loanAmount);
+        String applicationField = applicationId != null ? applicationId.toString() : null;
+        return obligations(customerId)
+            .map(obligations -> debtToIncome(obligations, applicationField, monthlyIncome, newPayment))
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                fallbackCounter.increment();
+                BigDecimal existing = monthlyIncome.multiply(fallbackObligationRatio).setScale(2, RoundingMode.HALF_UP);
+                return new DebtToIncome(ratio(existing.add(newPayment), monthlyIncome),
+                        "Existing obligations unavailable, assumed " + existing + " + new payment " + newPayment);
+            }));
+    }
+
+    // For dry runs (JIT warm-up): the same computation with no existing obligations, without touching Redis or the cache
+    public DebtToIncome assessWithoutObligations(BigDecimal monthlyIncome, BigDecimal loanAmount) {
+        return debtToIncome(Obligations.NONE, null, monthlyIncome, monthlyPayment(loanAmount));
+    }
+
+    private DebtToIncome debtToIncome(Obligations obligations, String applicationField, BigDecimal monthlyIncome, BigDecimal newPayment) {
+        BigDecimal existing = obligations.excluding(applicationField);
+        return new DebtToIncome(ratio(existing.add(newPayment), monthlyIncome),
+                "Existing obligations " + existing + " (" + obligations.loans(applicationField) + " approved loans) + new payment " + newPayment);
+    }
+
+    // Called for every decision event produced (see KafkaEventProducer)
+    public void applyDecision(DecisionEvent event) {
+        if (event.getCustomerId() == null || event.getApplicationId() == null) {
+            return;
+        }
+        String customerId = event.getCustomerId();
+        String field = event.getApplicationId().toString();
+        boolean approved = DECISION_APPROVED.equals(event.getDecision()) && event.getLoanAmount() != null;
+        BigDecimal payment = approved ? monthlyPayment(event.getLoanAmount()) : null;
+
+        // Visible to this pod's next lookup right away; a customer that isn't cached is loaded from Redis later
+        obligationsCache.asMap().computeIfPresent(customerId,
+                (id, obligations) -> approved ? obligations.with(field, payment) : obligations.without(field));
+
+        ReactiveHashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+        String redisKey = REDIS_KEY_PREFIX + customerId;
+        Mono<?> write = approved
+                ? hashOps.put(redisKey, field, payment.toPlainString() + END_SEPARATOR + (System.currentTimeMillis() + loanTerm.toMillis()))
+                    .then(redisTemplate.expire(redisKey, loanTerm))
+                : hashOps.remove(redisKey, field);
+        write.timeout(REDIS_TIMEOUT)
+            .subscribe(
+                result -> decisionsAppliedCounter.increment(),
+                error -> {
+                    redisWriteErrorCounter.increment();
+                    log.warn("Failed to apply {} decision of application {} to the obligations of customer {}: {}",
+                            event.getDecision(), field, customerId, error.getMessage());
+                });
+    }
+
+    // Empty if Redis is unavailable
+    private Mono<Obligations> obligations(String customerId) {
+        if (customerId == null) {
+            return Mono.just(Obligations.NONE);
+        }
+        Obligations cached = obligationsCache.getIfPresent(customerId);
+        if (cached != null) {
+            cacheHitCounter.increment();
+            return Mono.just(cached);
+        }
+        ReactiveHashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+        return hashOps.entries(REDIS_KEY_PREFIX + customerId)
+            .collectList()
+            .timeout(REDIS_TIMEOUT)
+            .map(entries -> activeObligations(customerId, entries))
+            .doOnNext(loaded -> {
+                redisLoadCounter.increment();
+                // A decision applied while loading already updated Redis, the next load picks it up
+                obligationsCache.asMap().putIfAbsent(customerId, loaded);
+            })
+            .onErrorResume(e -> {
+                log.warn("Failed to load obligations of customer {} from Redis: {}", customerId, e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    // Drops the loans that have ended and deletes them from the hash in the background
+    private Obligations activeObligations(String customerId, List<Map.Entry<String, String>> entries) {
+        long now = System.currentTimeMillis();
+        Map<String, BigDecimal> payments = new HashMap<>();
+        List<String> ended = new ArrayList<>();
+        for (Map.Entry<String, String> entry : entries) {
+            String value = entry.getValue();
+            int separator = value.indexOf(END_SEPARATOR);
+            if (separator >= 0 && Long.parseLong(value.substring(separator + 1)) <= now) {
+                ended.add(entry.getKey());
+                continue;
+            }
+            payments.put(entry.getKey(), new BigDecimal(separator >= 0 ? value.substring(0, separator) : value));
+        }
+        if (!ended.isEmpty()) {
+            redisTemplate.<String, String>opsForHash().remove(REDIS_KEY_PREFIX + customerId, ended.toArray())
+                .subscribe(removed -> { }, error -> log.debug("Failed to remove ended loans of customer {}: {}", customerId, error.getMessage()));
+        }
+        return Obligations.of(payments);
+    }
+
+    BigDecimal monthlyPayment(BigDecimal loanAmount) {
+        if (loanAmount == null || loanAmount.signum() <= 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        double principal = loanAmount.doubleValue();
+        double payment = monthlyRate == 0
+                ? principal / assumedTermMonths
+                : principal * monthlyRate / (1 - Math.pow(1 + monthlyRate, -assumedTermMonths));
+        return BigDecimal.valueOf(payment).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal ratio(BigDecimal monthlyDebt, BigDecimal monthlyIncome) {
+        if (monthlyIncome == null || monthlyIncome.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return monthlyDebt.divide(monthlyIncome, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
+    }
+
+    // Monthly payments of one customer's approved loans by application ID, with their total; immutable
+    private record Obligations(Map<String, BigDecimal> payments, BigDecimal total) {
+
+        static final Obligations NONE = new Obligations(Map.of(), BigDecimal.ZERO);
+
+        static Obligations of(Map<String, BigDecimal> payments) {
+            return new Obligations(Map.copyOf(payments), payments.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+
+        BigDecimal excluding(String applicationId) {
+            BigDecimal own = applicationId != null ? payments.get(applicationId) : null;
+            return own != null ? total.subtract(own) : total;
+        }
+
+        int loans(String excludedApplicationId) {
+            return payments.size() - (excludedApplicationId != null && payments.containsKey(excludedApplicationId) ? 1 : 0);
+        }
+
+        Obligations with(String applicationId, BigDecimal payment) {
+            Map<String, BigDecimal> updated = new HashMap<>(payments);
+            BigDecimal previous = updated.put(applicationId, payment);
+            return new Obligations(Map.copyOf(updated), total.add(payment).subtract(previous != null ? previous : BigDecimal.ZERO));
+        }
+
+        Obligations without(String applicationId) {
+            if (!payments.containsKey(applicationId)) {
+                return this;
+            }
+            Map<String, BigDecimal> updated = new HashMap<>(payments);
+            BigDecimal removed = updated.remove(applicationId);
+            return new Obligations(Map.copyOf(updated), total.subtract(removed));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.dto.DecisionStatsBucket;
+import com.example.riskassessmentservice.dto.DecisionStatsSnapshot;
+import com.example.riskassessmentservice.model.RiskAssessment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// In-process read model of decision statistics in tumbling one-hour windows per loan purpose.
+// Each pod accumulates locally and periodically pushes its deltas into per-hour Redis hashes with
+// HINCRBY, so the windows merge across pods by plain addition. GET /api/risk/stats serves the last
+// precomputed snapshot and never touches Postgres.
+@Service
+@Profile("!read-pod")
+public class DecisionStatsAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionStatsAggregator.class);
+
+    static final String ALL_PURPOSES = "ALL";
+    private static final String UNKNOWN_PURPOSE = "UNKNOWN";
+    private static final String STATS_KEY_PREFIX = "decision_stats:";
+    private static final long HOUR_MS = Duration.ofHours(1).toMillis();
+    private static final Duration REDIS_TIMEOUT = Duration.ofSeconds(5);
+
+    // Hash field names are "<metric>|<loanPurpose>"
+    private static final String COUNT_FIELD = "count";
+    private static final String APPROVED_FIELD = "approved";
+    private static final String RISK_SCORE_SUM_FIELD = "riskScoreSum";
+    private static final String PROCESSING_MS_SUM_FIELD = "processingMsSum";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final int windowHours;
+
+    // Totals of everything this pod has seen, and the part of it not yet pushed to Redis
+    private final ConcurrentMap<WindowKey, WindowAccumulator> localWindows = new ConcurrentHashMap<>();
+    private final ConcurrentMap<WindowKey, WindowAccumulator> pendingDeltas = new ConcurrentHashMap<>();
+
+    private volatile DecisionStatsSnapshot localSnapshot;
+    private volatile DecisionStatsSnapshot clusterSnapshot;
+
+    private final Counter flushErrorCounter;
+
+    public DecisionStatsAggregator(ReactiveStringRedisTemplate redisTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${risk.stats.window-hours:24}") int windowHours) {
+        this.redisTemplate = redisTemplate;
+        this.windowHours = windowHours;
+        this.localSnapshot = new DecisionStatsSnapshot(Instant.now(), "local", List.of());
+
+        this.flushErrorCounter = Counter.builder("decision_stats.flush")
+            .tag("status", "error")
+            .description("Number of failed pushes/merges of decision statistics through Redis")
+            .register(meterRegistry);
+    }
+
+    public void record(String loanPurpose, RiskAssessment assessment) {
+        record(loanPurpose, assessment.getDecision(), assessment.getRiskScore(), assessment.getProcessingTimeMs(), System.currentTimeMillis());
+    }
+
+    void record(String loanPurpose, String decision, BigDecimal riskScore, Integer processingTimeMs, long timestampMs) {
+        long hour = timestampMs / HOUR_MS;
+        boolean approved = "APPROVED".equals(decision);
+        double score = riskScore != null ? riskScore.doubleValue() : 0;
+        long processingMs = processingTimeMs != null ? processingTimeMs : 0;
+        String purpose = loanPurpose != null && !loanPurpose.isBlank() ? loanPurpose : UNKNOWN_PURPOSE;
+
+        add(new WindowKey(hour, purpose), approved, score, processingMs);
+        add(new WindowKey(hour, ALL_PURPOSES), approved, score, processingMs);
+    }
+
+    private void add(WindowKey key, boolean approved, double score, long processingMs) {
+        localWindows.computeIfAbsent(key, k -> new WindowAccumulator()).add(approved, score, processingMs);
+        pendingDeltas.computeIfAbsent(key, k -> new WindowAccumulator()).add(approved, score, processingMs);
+    }
+
+    // scope "local" returns this pod's view only; anything else returns the cluster-wide view if one
+    // has been merged from Redis yet, and the local view otherwise.
+    public DecisionStatsSnapshot snapshot(String scope) {
+        DecisionStatsSnapshot cluster = clusterSnapshot;
+        if ("local".equalsIgnoreCase(scope) || cluster == null) {
+            return localSnapshot;
+        }
+        return cluster;
+    }
+
+    @Scheduled(fixedDelayString = "${risk.stats.flush-interval-ms:5000}")
+    public void flushAndRefresh() {
+        refresh(System.currentTimeMillis() / HOUR_MS);
+    }
+
+    void refresh(long currentHour) {
+        long oldestHour = currentHour - windowHours + 1;
+        localWindows.keySet().removeIf(key -> key.hour() < oldestHour);
+
+        Map<WindowKey, double[]> localTotals = new HashMap<>();
+        localWindows.forEach((key, accumulator) -> localTotals.put(key, accumulator.totals()));
+        localSnapshot = buildSnapshot("local", localTotals);
+
+        try {
+            flushPending(currentHour)
+                .then(loadClusterWindows(currentHour))
+                .doOnSuccess(clusterTotals -> clusterSnapshot = buildSnapshot("cluster", clusterTotals))
+                .block(REDIS_TIMEOUT);
+        } catch (Exception e) {
+            log.warn("Failed to merge decision statistics through Redis, serving local view: {}", e.getMessage());
+            flushErrorCounter.increment();
+            clusterSnapshot = null;
+        }
+    }
+
+    private Mono<Void> flushPending(long currentHour) {
+        ReactiveHashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+        List<Mono<?>> writes = new ArrayList<>();
+        pendingDeltas.forEach((key, accumulator) -> {
+            double[] delta = accumulator.drain();
+            if (delta[0] == 0) {
+                // Windows that have closed can't receive new deltas any more
+                if (key.hour() < currentHour) {
+                    pendingDeltas.remove(key, accumulator);
+                }
+                return;
+            }
+            String redisKey = STATS_KEY_PREFIX + key.hour();
+            writes.add(Mono.when(
+                        hashOps.increment(redisKey, field(COUNT_FIELD, key.purpose()), (long) delta[0]),
+                        hashOps.increment(redisKey, field(APPROVED_FIELD, key.purpose()), (long) delta[1]),
+                        hashOps.increment(redisKey, field(RISK_SCORE_SUM_FIELD, key.purpose()), delta[2]),
+                        hashOps.increment(redisKey, field(PROCESSING_MS_SUM_FIELD, key.purpose()), (long) delta[3]),
+                        redisTemplate.expire(redisKey, Duration.ofHours(windowHours + 1L)))
+                    // Put the delta back so the next flush retries it (a partially applied delta may be counted twice)
+                    .doOnError(e -> accumulator.restore(delta)));
+        });
+        return Mono.when(writes);
+    }
+
+    private Mono<Map<WindowKey, double[]>> loadClusterWindows(long currentHour) {
+        ReactiveHashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+        return Flux.range(0, windowHours)
+            .map(offset -> currentHour - offset)
+            .flatMap(hour -> hashOps.entries(STATS_KEY_PREFIX + hour)
+                .map(entry -> Map.entry(hour, entry)))
+            .collect(HashMap::new, (Map<WindowKey, double[]> totals, Map.Entry<Long, Map.Entry<String, String>> hourEntry) -> {
+                String field = hourEntry.getValue().getKey();
+                int separator = field.indexOf('|');
+                if (separator < 0) {
+                    return;
+                }
+                WindowKey key = new WindowKey(hourEntry.getKey(), field.substring(separator + 1));
+                double[] values = totals.computeIfAbsent(key, k -> new double[4]);
+                double value = Double.parseDouble(hourEntry.getValue().getValue());
+                switch (field.substring(0, separator)) {
+                    case COUNT_FIELD -> values[0] = value;
+                    case APPROVED_FIELD -> values[1] = value;
+                    case RISK_SCORE_SUM_FIELD -> values[2] = value;
+                    case PROCESSING_MS_SUM_FIELD -> values[3] = value;
+                    default -> { }
+                }
+            });
+    }
+
+    private static DecisionStatsSnapshot buildSnapshot(String scope, Map<WindowKey, double[]> totals) {
+        List<DecisionStatsBucket> buckets = new ArrayList<>(totals.size());
+        totals.forEach((key, values) -> {
+            long count = (long) values[0];
+            if (count == 0) {
+                return;
+            }
+            buckets.add(new DecisionStatsBucket(
+                    Instant.ofEpochMilli(key.hour() * HOUR_MS),
+                    key.purpose(),
+                    count,
+                    (long) values[1],
+                    values[1] / count,
+                    values[2] / count,
+                    values[3] / count));
+        });
+        buckets.sort(Comparator.comparing(DecisionStatsBucket::hourStart).reversed()
+            .thenComparing(DecisionStatsBucket::loanPurpose));
+        return new DecisionStatsSnapshot(Instant.now(), scope, List.copyOf(buckets));
+    }
+
+    private static String field(String metric, String purpose) {
+        return metric + "|" + purpose;
+    }
+
+    private record WindowKey(long hour, String purpose) {}
+
+    // Lock-free running sums of one window: {count, approved, riskScoreSum, processingMsSum}
+    private static final class WindowAccumulator {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder approved = new LongAdder();
+        private final DoubleAdder riskScoreSum = new DoubleAdder();
+        private final LongAdder processingMsSum = new LongAdder();
+
+        void add(boolean isApproved, double riskScore, long processingMs) {
+            count.increment();
+            if (isApproved) {
+                approved.increment();
+            }
+            riskScoreSum.add(riskScore);
+            processingMsSum.add(processingMs);
+        }
+
+        double[] totals() {
+            return new double[] {count.sum(), approved.sum(), riskScoreSum.sum(), processingMsSum.sum()};
+        }
+
+        double[] drain() {
+            return new double[] {count.sumThenReset(), approved.sumThenReset(), riskScoreSum.sumThenReset(), processingMsSum.sumThenReset()};
+        }
+
+        void restore(double[] delta) {
+            count.add((long) delta[0]);
+            approved.add((long) delta[1]);
+            riskScoreSum.add(delta[2]);
+            processingMsSum.add((long) delta[3]);
+        }
+    }
+}
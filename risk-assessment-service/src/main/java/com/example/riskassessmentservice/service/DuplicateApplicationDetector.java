@@ -0,0 +1,271 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.sketch.CountMinSketch;
+import com.example.riskassessmentservice.sketch.HyperLogLog;
+import com.example.riskassessmentservice.sketch.Sketches;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Flags customers shopping the same application around (e.g. through several channels) without querying
+// Postgres. Applications are counted per (customerId, loan amount bucket, purpose) in a count-min sketch
+// and their distinct tuples in a HyperLogLog, both per tumbling window; a check covers the current and the
+// previous window. A tuple whose estimated count reaches heavy-hitter-threshold is flagged. Memory is
+// constant (depth x width ints + 2^precision registers per window) and the sketch's over-count is at most
+// e / width of the applications in the window with probability 1 - e^-depth.
+// Each pod periodically stores its own sketches (deflated) in the Redis hash fraud_sketch:<window> and
+// merges those of the other pods into a read-only view; restarted pods' sketches stay until the key expires.
+@Component
+@Profile("!read-pod")
+public class DuplicateApplicationDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateApplicationDetector.class);
+
+    private static final String REDIS_KEY_PREFIX = "fraud_sketch:";
+    private static final String CMS_FIELD_PREFIX = "cms:";
+    private static final String HLL_FIELD_PREFIX = "hll:";
+    private static final Duration REDIS_TIMEOUT = Duration.ofSeconds(10);
+
+    public record DuplicateCheck(long similarApplications, boolean flagged, String details) {}
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final int depth;
+    private final int width;
+    private final int hllPrecision;
+    private final BigDecimal amountBucket;
+    private final long heavyHitterThreshold;
+    private final long windowMillis;
+    private final boolean redisSyncEnabled;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Current and previous window, keyed by window number
+    private final ConcurrentMap<Long, WindowSketches> windows = new ConcurrentHashMap<>();
+
+    private final Counter flaggedCounter;
+    private final Counter syncErrorCounter;
+
+    public DuplicateApplicationDetector(ReactiveStringRedisTemplate redisTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${risk.fraud.sketch.depth:4}") int depth,
+                                        @Value("${risk.fraud.sketch.width:65536}") int width,
+                                        @Value("${risk.fraud.sketch.hll-precision:12}") int hllPrecision,
+                                        @Value("${risk.fraud.sketch.amount-bucket:1000}") BigDecimal amountBucket,
+                                        @Value("${risk.fraud.sketch.heavy-hitter-threshold:3}") long heavyHitterThreshold,
+                                        @Value("${risk.fraud.sketch.window:24h}") Duration window,
+                                        @Value("${risk.fraud.sketch.redis-sync.enabled:true}") boolean redisSyncEnabled) {
+        this.redisTemplate = redisTemplate;
+        this.depth = depth;
+        this.width = width;
+        this.hllPrecision = hllPrecision;
+        this.amountBucket = amountBucket;
+        this.heavyHitterThreshold = heavyHitterThreshold;
+        this.windowMillis = window.toMillis();
+        this.redisSyncEnabled = redisSyncEnabled;
+
+        this.flaggedCounter = Counter.builder("fraud.sketch.flagged")
+            .description("Applications whose (customer, amount bucket, purpose) tuple is a heavy hitter")
+            .register(meterRegistry);
+        this.syncErrorCounter = Counter.builder("fraud.sketch.sync")
+            .tag("status", "error")
+            .description("Failed exchanges of the duplicate-detection sketches with Redis")
+            .register(meterRegistry);
+        Gauge.builder("fraud.sketch.applications", this, detector -> detector.current().applications())
+            .description("Applications counted in the current window (all pods, as of the last sync)")
+            .register(meterRegistry);
+        Gauge.builder("fraud.sketch.distinct_tuples", this, detector -> detector.current().distinctTuples())
+            .description("Estimated distinct (customer, amount bucket, purpose) tuples in the current window")
+            .register(meterRegistry);
+        log.info("Duplicate application sketches: {}x{} count-min (max over-count {}% of a window, {}% confidence), HLL precision {}",
+                depth, width, String.format("%.4f", 100 * Math.E / width), String.format("%.1f", 100 * (1 - Math.exp(-depth))), hllPrecision);
+    }
+
+    public DuplicateCheck check(String customerId, BigDecimal loanAmount, String loanPurpose, boolean record) {
+        return check(customerId, loanAmount, loanPurpose, record, System.currentTimeMillis());
+    }
+
+    DuplicateCheck check(String customerId, BigDecimal loanAmount, String loanPurpose, boolean record, long nowMillis) {
+        long hash = Sketches.hash64(tuple(customerId, loanAmount, loanPurpose));
+        long windowNumber = nowMillis / windowMillis;
+        WindowSketches current = window(windowNumber);
+        if (record) {
+            current.local.add(hash, 1);
+            current.localDistinct.add(hash);
+        }
+        WindowSketches previous = windows.get(windowNumber - 1);
+        long similar = current.estimate(hash) + (previous != null ? previous.estimate(hash) : 0);
+        long applications = current.applications() + (previous != null ? previous.applications() : 0);
+
+        if (similar >= heavyHitterThreshold) {
+            flaggedCounter.increment();
+            // Every estimate may include up to this many unrelated applications (hash collisions)
+            long maxOverCount = (long) Math.ceil(current.local.relativeError() * applications);
+            return new DuplicateCheck(similar, true, "~" + similar + " similar applications (max over-count " + maxOverCount + ")");
+        }
+        return new DuplicateCheck(similar, false, "No repeated applications");
+    }
+
+    // Amounts within the same bucket (amount-bucket wide) count as the same application
+    private String tuple(String customerId, BigDecimal loanAmount, String loanPurpose) {
+        long bucket = loanAmount != null ? loanAmount.divide(amountBucket, 0, RoundingMode.FLOOR).longValue() : -1;
+        return customerId + "|" + bucket + "|" + (loanPurpose != null ? loanPurpose : "");
+    }
+
+    private WindowSketches current() {
+        return window(System.currentTimeMillis() / windowMillis);
+    }
+
+    private WindowSketches window(long windowNumber) {
+        WindowSketches sketches = windows.get(windowNumber);
+        if (sketches != null) {
+            return sketches;
+        }
+        windows.keySet().removeIf(number -> number < windowNumber - 1);
+        return windows.computeIfAbsent(windowNumber, number -> new WindowSketches(number,
+                new CountMinSketch(depth, width), new HyperLogLog(hllPrecision)));
+    }
+
+    // Stores this pod's sketches of the current and previous window and reloads the other pods' ones
+    @Scheduled(fixedDelayString = "${risk.fraud.sketch.redis-sync.interval-ms:30000}")
+    public void syncWithRedis() {
+        if (!redisSyncEnabled) {
+            return;
+        }
+        long currentWindow = System.currentTimeMillis() / windowMillis;
+        window(currentWindow);
+        try {
+            Flux.fromIterable(windows.values())
+                .concatMap(this::sync)
+                .then()
+                .block(REDIS_TIMEOUT);
+        } catch (Exception e) {
+            log.warn("Failed to sync duplicate-detection sketches with Redis, using the last merged view: {}", e.getMessage());
+            syncErrorCounter.increment();
+        }
+    }
+
+    private Mono<Void> sync(WindowSketches sketches) {
+        String redisKey = REDIS_KEY_PREFIX + sketches.windowNumber();
+        ReactiveHashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+        // Kept until the window can no longer be part of a check
+        Duration ttl = Duration.ofMillis((sketches.windowNumber() + 2) * windowMillis - System.currentTimeMillis()).plusHours(1);
+        Mono<Void> store = sketches.local.total() == 0 ? Mono.empty() : hashOps.putAll(redisKey, Map.of(
+                    CMS_FIELD_PREFIX + instanceId, encode(sketches.local.toBytes()),
+                    HLL_FIELD_PREFIX + instanceId, encode(sketches.localDistinct.toBytes())))
+                .then(redisTemplate.expire(redisKey, ttl))
+                .then();
+        return store.then(hashOps.entries(redisKey)
+                .filter(field -> !field.getKey().endsWith(instanceId))
+                .collectList()
+                .doOnNext(fields -> {
+                    CountMinSketch others = new CountMinSketch(depth, width);
+                    HyperLogLog othersDistinct = new HyperLogLog(hllPrecision);
+                    for (Map.Entry<String, String> field : fields) {
+                        try {
+                            if (field.getKey().startsWith(CMS_FIELD_PREFIX)) {
+                                others.merge(CountMinSketch.fromBytes(decode(field.getValue())));
+                            } else if (field.getKey().startsWith(HLL_FIELD_PREFIX)) {
+                                othersDistinct.merge(HyperLogLog.fromBytes(decode(field.getValue())));
+                            }
+                        } catch (RuntimeException | DataFormatException e) {
+                            // A pod with a different sketch shape (config change during a rollout) is skipped
+                            log.warn("Ignoring sketch {} of window {}: {}", field.getKey(), sketches.windowNumber(), e.getMessage());
+                        }
+                    }
+                    sketches.others = others;
+                    sketches.othersDistinct = othersDistinct;
+                }))
+            .then();
+    }
+
+    private static String encode(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 8);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        deflater.end();
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    private static byte[] decode(String encoded) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(Base64.getDecoder().decode(encoded));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        while (!inflater.finished()) {
+            int inflated = inflater.inflate(chunk);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                throw new DataFormatException("Truncated sketch");
+            }
+            out.write(chunk, 0, inflated);
+        }
+        inflater.end();
+        return out.toByteArray();
+    }
+
+    // This pod's sketches of one window, plus the merged sketches of the other pods from the last sync
+    private static final class WindowSketches {
+
+        private final long windowNumber;
+        final CountMinSketch local;
+        final HyperLogLog localDistinct;
+        volatile CountMinSketch others;
+        volatile HyperLogLog othersDistinct;
+
+        WindowSketches(long windowNumber, CountMinSketch local, HyperLogLog localDistinct) {
+            this.windowNumber = windowNumber;
+            this.local = local;
+            this.localDistinct = localDistinct;
+        }
+
+        long windowNumber() {
+            return windowNumber;
+        }
+
+        long estimate(long hash) {
+            return local.estimate(hash, others);
+        }
+
+        long applications() {
+            CountMinSketch merged = others;
+            return local.total() + (merged != null ? merged.total() : 0);
+        }
+
+        long distinctTuples() {
+            HyperLogLog merged = othersDistinct;
+            if (merged == null) {
+                return localDistinct.estimate();
+            }
+            HyperLogLog union = HyperLogLog.fromBytes(merged.toBytes());
+            union.merge(localDistinct);
+            return union.estimate();
+        }
+    }
+}
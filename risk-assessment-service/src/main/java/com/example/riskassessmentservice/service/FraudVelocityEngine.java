@@ -0,0 +1,414 @@
+package com.example.riskassessmentservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// In-memory application velocity per customer and per application fingerprint (same loan amount and
+// income from different customers is a typical synthetic-identity pattern), over 1 min, 1 h and 24 h.
+// Each tracked key holds time-bucketed ring buffers (6 x 10 s, 12 x 5 min, 24 x 1 h) in one AtomicLongArray;
+// a cell packs its bucket epoch with the value, so recording is a CAS per cell and a stale bucket is
+// reset by the same CAS that claims it. No locks on the scoring path; assess() costs a few microseconds.
+// Memory is bounded by max-tracked-keys (~0.8 KB per key, least recently used keys are evicted).
+// With redis-sync enabled, deltas are pushed every interval into per-key Redis hashes (5 min buckets), and
+// assessClusterWide reads the customer's and the fingerprint's hashes before scoring, so a pod sees the
+// other pods' 1 h / 24 h counts even for keys it never recorded itself. Scoring uses the larger of the local
+// and the cluster view, so nothing is double counted. The 1 min window is always local.
+@Component
+@Profile("!read-pod")
+public class FraudVelocityEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FraudVelocityEngine.class);
+
+    private static final String CUSTOMER_PREFIX = "customer:";
+    private static final String FINGERPRINT_PREFIX = "fingerprint:";
+    private static final String REDIS_KEY_PREFIX = "fraud_velocity:";
+    private static final Duration REDIS_KEY_TTL = Duration.ofHours(25);
+    private static final Duration REDIS_TIMEOUT = Duration.ofSeconds(5);
+
+    // Risk of an application without any velocity signal (the former fixed fraud check result)
+    private static final double BASE_RISK = 0.05;
+    private static final double MAX_RISK = 0.99;
+
+    // Weight of each signal in the fraud risk; a signal is 0 at its limit and 1 at twice the limit
+    private static final double CUSTOMER_MINUTE_WEIGHT = 0.40;
+    private static final double CUSTOMER_HOUR_WEIGHT = 0.25;
+    private static final double CUSTOMER_DAY_WEIGHT = 0.15;
+    private static final double CUSTOMER_AMOUNT_WEIGHT = 0.20;
+    private static final double FINGERPRINT_HOUR_WEIGHT = 0.30;
+    private static final double FINGERPRINT_DAY_WEIGHT = 0.15;
+
+    enum Window {
+        MINUTE(6, 10_000L), HOUR(12, 300_000L), DAY(24, 3_600_000L);
+
+        final int buckets;
+        final long bucketMillis;
+
+        Window(int buckets, long bucketMillis) {
+            this.buckets = buckets;
+            this.bucketMillis = bucketMillis;
+        }
+
+        int epoch(long nowMillis) {
+            return (int) (nowMillis / bucketMillis);
+        }
+    }
+
+    public record VelocityAssessment(BigDecimal fraudRiskScore, String details) {}
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean redisSyncEnabled;
+    private final Duration lookupTimeout;
+    private final int customerMaxPerMinute;
+    private final int customerMaxPerHour;
+    private final int customerMaxPerDay;
+    private final long customerMaxAmountPerDay;
+    private final int fingerprintMaxPerHour;
+    private final int fingerprintMaxPerDay;
+
+    private final Cache<String, VelocityCounter> counters;
+    // Deltas not yet pushed to Redis, per key and 5 min bucket (only filled with redis-sync enabled)
+    private final ConcurrentMap<SyncBucket, PendingDelta> pendingDeltas = new ConcurrentHashMap<>();
+
+    private final Timer assessmentTimer;
+    private final Map<String, Counter> signalCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter syncErrorCounter;
+
+    public FraudVelocityEngine(ReactiveStringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${risk.fraud.velocity.max-tracked-keys:200000}") long maxTrackedKeys,
+                               @Value("${risk.fraud.velocity.customer.max-per-minute:1}") int customerMaxPerMinute,
+                               @Value("${risk.fraud.velocity.customer.max-per-hour:3}") int customerMaxPerHour,
+                               @Value("${risk.fraud.velocity.customer.max-per-day:5}") int customerMaxPerDay,
+                               @Value("${risk.fraud.velocity.customer.max-amount-per-day:250000}") long customerMaxAmountPerDay,
+                               @Value("${risk.fraud.velocity.fingerprint.max-per-hour:3}") int fingerprintMaxPerHour,
+                               @Value("${risk.fraud.velocity.fingerprint.max-per-day:10}") int fingerprintMaxPerDay,
+                               @Value("${risk.fraud.velocity.redis-sync.enabled:false}") boolean redisSyncEnabled,
+                               @Value("${risk.fraud.velocity.redis-sync.lookup-timeout:50ms}") Duration lookupTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.customerMaxPerMinute = customerMaxPerMinute;
+        this.customerMaxPerHour = customerMaxPerHour;
+        this.customerMaxPerDay = customerMaxPerDay;
+        this.customerMaxAmountPerDay = customerMaxAmountPerDay;
+        this.fingerprintMaxPerHour = fingerprintMaxPerHour;
+        this.fingerprintMaxPerDay = fingerprintMaxPerDay;
+        this.redisSyncEnabled = redisSyncEnabled;
+        this.lookupTimeout = lookupTimeout;
+
+        // Nothing older than the day window matters, so idle keys go well before they'd be evicted by size
+        this.counters = Caffeine.newBuilder()
+            .maximumSize(maxTrackedKeys)
+            .expireAfterAccess(Duration.ofHours(24))
+            .build();
+
+        this.assessmentTimer = Timer.builder("fraud.velocity.assessment")
+            .description("Time to record an application and compute its velocity fraud risk")
+            .register(meterRegistry);
+        Gauge.builder("fraud.velocity.tracked_keys", counters, Cache::estimatedSize)
+            .description("Customers and application fingerprints with velocity counters in memory")
+            .register(meterRegistry);
+        this.syncErrorCounter = Counter.builder("fraud.velocity.sync")
+            .tag("status", "error")
+            .description("Failed exchanges of velocity counters with Redis")
+            .register(meterRegistry);
+    }
+
+    // assess() with the cluster view of the customer and fingerprint refreshed from Redis first (redis-sync only).
+    // A slow or failed read scores with the last view, like a failed sync.
+    public Mono<VelocityAssessment> assessClusterWide(String customerId, BigDecimal loanAmount, BigDecimal income, boolean record) {
+        if (!redisSyncEnabled) {
+            return Mono.fromSupplier(() -> assess(customerId, loanAmount, income, record));
+        }
+        String fingerprintKey = fingerprintKey(loanAmount, income);
+        List<String> keys = fingerprintKey != null ? List.of(CUSTOMER_PREFIX + customerId, fingerprintKey) : List.of(CUSTOMER_PREFIX + customerId);
+        ReactiveHashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+        return Flux.fromIterable(keys)
+            .flatMap(key -> hashOps.entries(REDIS_KEY_PREFIX + key).collectList()
+                .doOnNext(fields -> applyClusterView(counter(key), fields, Window.HOUR.epoch(System.currentTimeMillis()))))
+            .then()
+            .timeout(lookupTimeout)
+            .onErrorResume(e -> {
+                log.debug("Failed to read fraud velocity counters of customer {} from Redis: {}", customerId, e.getMessage());
+                syncErrorCounter.increment();
+                return Mono.empty();
+            })
+            .then(Mono.fromSupplier(() -> assess(customerId, loanAmount, income, record)));
+    }
+
+    // Records the application (unless record is false, e.g. for a reassessment of an application that was
+    // already counted) and scores the velocity of its customer and fingerprint including it.
+    public VelocityAssessment assess(String customerId, BigDecimal loanAmount, BigDecimal income, boolean record) {
+        return assess(customerId, loanAmount, income, record, System.currentTimeMillis());
+    }
+
+    VelocityAssessment assess(String customerId, BigDecimal loanAmount, BigDecimal income, boolean record, long nowMillis) {
+        long start = System.nanoTime();
+        long amountUnits = loanAmount != null ? Math.max(0, loanAmount.setScale(0, RoundingMode.HALF_UP).longValue()) : 0;
+
+        VelocityCounter customer = counter(CUSTOMER_PREFIX + customerId);
+        String fingerprintKey = fingerprintKey(loanAmount, income);
+        VelocityCounter fingerprint = fingerprintKey != null ? counter(fingerprintKey) : null;
+        if (record) {
+            record(customer, amountUnits, nowMillis);
+            if (fingerprint != null) {
+                record(fingerprint, amountUnits, nowMillis);
+            }
+        }
+
+        double risk = BASE_RISK;
+        List<String> signals = new ArrayList<>(2);
+        risk += signal("customer_minute", customer.count(Window.MINUTE, nowMillis), customerMaxPerMinute, CUSTOMER_MINUTE_WEIGHT, signals);
+        risk += signal("customer_hour", customer.clusterCount(Window.HOUR, nowMillis), customerMaxPerHour, CUSTOMER_HOUR_WEIGHT, signals);
+        risk += signal("customer_day", customer.clusterCount(Window.DAY, nowMillis), customerMaxPerDay, CUSTOMER_DAY_WEIGHT, signals);
+        risk += signal("customer_amount_day", customer.clusterAmount(Window.DAY, nowMillis), customerMaxAmountPerDay, CUSTOMER_AMOUNT_WEIGHT, signals);
+        if (fingerprint != null) {
+            risk += signal("fingerprint_hour", fingerprint.clusterCount(Window.HOUR, nowMillis), fingerprintMaxPerHour, FINGERPRINT_HOUR_WEIGHT, signals);
+            risk += signal("fingerprint_day", fingerprint.clusterCount(Window.DAY, nowMillis), fingerprintMaxPerDay, FINGERPRINT_DAY_WEIGHT, signals);
+        }
+
+        assessmentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        String details = signals.isEmpty() ? "No velocity anomalies" : "Velocity limits exceeded: " + String.join(", ", signals);
+        return new VelocityAssessment(BigDecimal.valueOf(Math.min(MAX_RISK, risk)).setScale(4, RoundingMode.HALF_UP), details);
+    }
+
+    private static String fingerprintKey(BigDecimal loanAmount, BigDecimal income) {
+        return loanAmount != null && income != null
+            ? FINGERPRINT_PREFIX + loanAmount.stripTrailingZeros().toPlainString() + "|" + income.stripTrailingZeros().toPlainString()
+            : null;
+    }
+
+    private VelocityCounter counter(String key) {
+        return counters.get(key, VelocityCounter::new);
+    }
+
+    private void record(VelocityCounter counter, long amountUnits, long nowMillis) {
+        counter.add(amountUnits, nowMillis);
+        if (redisSyncEnabled) {
+            pendingDeltas.computeIfAbsent(new SyncBucket(counter.key, Window.HOUR.epoch(nowMillis)), bucket -> new PendingDelta())
+                .add(amountUnits);
+        }
+    }
+
+    private double signal(String name, long observed, long limit, double weight, List<String> signals) {
+        if (limit <= 0 || observed <= limit) {
+            return 0;
+        }
+        signals.add(name + "=" + observed + " (limit " + limit + ")");
+        signalCounters.computeIfAbsent(name, n -> Counter.builder("fraud.velocity.signals")
+            .tag("signal", n)
+            .description("Applications that exceeded a velocity limit")
+            .register(meterRegistry)).increment();
+        return weight * Math.min(1.0, (double) (observed - limit) / limit);
+    }
+
+    // Pushes this pod's deltas with HINCRBY into fraud_velocity:<key> (fields c:<epoch>/a:<epoch> per 5 min
+    // bucket). The merged hashes are read back by assessClusterWide when a key is scored.
+    @Scheduled(fixedDelayString = "${risk.fraud.velocity.redis-sync.interval-ms:2000}")
+    public void syncWithRedis() {
+        if (!redisSyncEnabled || pendingDeltas.isEmpty()) {
+            return;
+        }
+        long nowMillis = System.currentTimeMillis();
+        int currentEpoch = Window.HOUR.epoch(nowMillis);
+        ReactiveHashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+
+        Map<String, List<Mono<?>>> writesByKey = new HashMap<>();
+        pendingDeltas.forEach((bucket, delta) -> {
+            long[] drained = delta.drain();
+            if (drained[0] == 0) {
+                if (bucket.epoch() < currentEpoch) {
+                    pendingDeltas.remove(bucket, delta);
+                }
+                return;
+            }
+            String redisKey = REDIS_KEY_PREFIX + bucket.key();
+            List<Mono<?>> writes = writesByKey.computeIfAbsent(bucket.key(), k -> new ArrayList<>());
+            writes.add(hashOps.increment(redisKey, "c:" + bucket.epoch(), drained[0]));
+            writes.add(hashOps.increment(redisKey, "a:" + bucket.epoch(), drained[1]));
+        });
+
+        try {
+            Flux.fromIterable(writesByKey.entrySet())
+                .flatMap(entry -> Flux.merge(entry.getValue())
+                    .then(redisTemplate.expire(REDIS_KEY_PREFIX + entry.getKey(), REDIS_KEY_TTL)), 16)
+                .then()
+                .block(REDIS_TIMEOUT);
+        } catch (Exception e) {
+            log.warn("Failed to sync fraud velocity counters with Redis, scoring with local counts: {}", e.getMessage());
+            syncErrorCounter.increment();
+        }
+    }
+
+    private void applyClusterView(VelocityCounter counter, List<Map.Entry<String, String>> fields, int currentEpoch) {
+        String key = counter.key;
+        long hourCount = 0, hourAmount = 0, dayCount = 0, dayAmount = 0;
+        int hourBuckets = Window.HOUR.buckets;
+        int dayBuckets = (int) (Window.DAY.buckets * Window.DAY.bucketMillis / Window.HOUR.bucketMillis);
+        List<String> expired = new ArrayList<>();
+        for (Map.Entry<String, String> field : fields) {
+            int separator = field.getKey().indexOf(':');
+            int age = currentEpoch - Integer.parseInt(field.getKey().substring(separator + 1));
+            long value = Long.parseLong(field.getValue());
+            boolean isCount = field.getKey().startsWith("c");
+            if (age >= dayBuckets) {
+                expired.add(field.getKey());
+                continue;
+            }
+            if (isCount) {
+                dayCount += value;
+                hourCount += age < hourBuckets ? value : 0;
+            } else {
+                dayAmount += value;
+                hourAmount += age < hourBuckets ? value : 0;
+            }
+        }
+        if (!expired.isEmpty()) {
+            redisTemplate.<String, String>opsForHash().remove(REDIS_KEY_PREFIX + key, expired.toArray())
+                .subscribe(removed -> { }, error -> log.debug("Failed to prune fraud velocity buckets of {}: {}", key, error.getMessage()));
+        }
+        counter.clusterView = new ClusterView(currentEpoch, hourCount, hourAmount, dayCount, dayAmount);
+    }
+
+    // Ring buffers of one key. Layout per window: [count cells][amount cells], one cell per bucket.
+    // A cell is (bucket epoch << 32 | value); values saturate at 2^32 - 1.
+    static final class VelocityCounter {
+
+        private static final long VALUE_MASK = 0xFFFF_FFFFL;
+        private static final int[] OFFSETS = new int[Window.values().length];
+        private static final int CELLS;
+
+        static {
+            int offset = 0;
+            for (Window window : Window.values()) {
+                OFFSETS[window.ordinal()] = offset;
+                offset += 2 * window.buckets;
+            }
+            CELLS = offset;
+        }
+
+        final String key;
+        private final AtomicLongArray cells = new AtomicLongArray(CELLS);
+        private volatile ClusterView clusterView;
+
+        VelocityCounter(String key) {
+            this.key = key;
+        }
+
+        void add(long amountUnits, long nowMillis) {
+            for (Window window : Window.values()) {
+                int epoch = window.epoch(nowMillis);
+                int slot = epoch % window.buckets;
+                int offset = OFFSETS[window.ordinal()];
+                addToCell(offset + slot, epoch, 1);
+                addToCell(offset + window.buckets + slot, epoch, amountUnits);
+            }
+        }
+
+        long count(Window window, long nowMillis) {
+            return sum(window, nowMillis, 0);
+        }
+
+        long amount(Window window, long nowMillis) {
+            return sum(window, nowMillis, window.buckets);
+        }
+
+        // Larger of the local count and the last merged cluster count (which includes what this pod pushed so far)
+        long clusterCount(Window window, long nowMillis) {
+            ClusterView view = clusterView(nowMillis);
+            long cluster = view == null ? 0 : window == Window.HOUR ? view.hourCount() : window == Window.DAY ? view.dayCount() : 0;
+            return Math.max(count(window, nowMillis), cluster);
+        }
+
+        long clusterAmount(Window window, long nowMillis) {
+            ClusterView view = clusterView(nowMillis);
+            long cluster = view == null ? 0 : window == Window.HOUR ? view.hourAmount() : window == Window.DAY ? view.dayAmount() : 0;
+            return Math.max(amount(window, nowMillis), cluster);
+        }
+
+        // A view from an earlier 5 min bucket may include buckets that have left the window since
+        private ClusterView clusterView(long nowMillis) {
+            ClusterView view = clusterView;
+            return view != null && view.epoch() == Window.HOUR.epoch(nowMillis) ? view : null;
+        }
+
+        private long sum(Window window, long nowMillis, int valueOffset) {
+            int currentEpoch = window.epoch(nowMillis);
+            int base = OFFSETS[window.ordinal()] + valueOffset;
+            long total = 0;
+            for (int i = 0; i < window.buckets; i++) {
+                long cell = cells.get(base + i);
+                int age = currentEpoch - (int) (cell >>> 32);
+                if (age >= 0 && age < window.buckets) {
+                    total += cell & VALUE_MASK;
+                }
+            }
+            return total;
+        }
+
+        private void addToCell(int index, int epoch, long delta) {
+            while (true) {
+                long cell = cells.get(index);
+                int cellEpoch = (int) (cell >>> 32);
+                long value;
+                if (cellEpoch == epoch) {
+                    value = Math.min(VALUE_MASK, (cell & VALUE_MASK) + delta);
+                } else if (cellEpoch < epoch) {
+                    value = Math.min(VALUE_MASK, delta); // Claims the stale bucket and resets it in one CAS
+                } else {
+                    return; // Already reused by a later bucket (caller's clock is behind), too old to count
+                }
+                if (cells.compareAndSet(index, cell, ((long) epoch << 32) | value)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record ClusterView(int epoch, long hourCount, long hourAmount, long dayCount, long dayAmount) {}
+
+    private record SyncBucket(String key, int epoch) {}
+
+    private static final class PendingDelta {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder amount = new LongAdder();
+
+        void add(long amountUnits) {
+            count.increment();
+            amount.add(amountUnits);
+        }
+
+        long[] drain() {
+            return new long[] {count.sumThenReset(), amount.sumThenReset()};
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.riskassessmentservice.service;
 import com.example.riskassessmentservice.dto.InitialScoringCompleteEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
+@Profile("!read-pod")
 public class KafkaEventConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaEventConsumer.class);
@@ -37,8 +39,11 @@ public class KafkaEventConsumer {
             .register(meterRegistry);
     }
 
-    @KafkaListener(topics = "scoring-events", // As per user requirements, actual topic name from application.yml if configured
-                   containerFactory = "kafkaListenerContainerFactory")
+    @KafkaListener(id = ScoringConsumerBackpressure.LISTENER_ID, // Paused/resumed by ScoringConsumerBackpressure
+                   idIsGroup = false, // Keep spring.kafka.consumer.group-id as the consumer group
+                   topics = "scoring-events", // As per user requirements, actual topic name from application.yml if configured
+                   containerFactory = "kafkaListenerContainerFactory",
+                   autoStartup = "false") // Started after warm-up by KafkaListenerStartupRunner
     public void consumeInitialScoringCompleteEvent(@Payload InitialScoringCompleteEvent event) {
         log.info("Received InitialScoringCompleteEvent: {}", event);
         riskAssessmentService.assessRisk(event)
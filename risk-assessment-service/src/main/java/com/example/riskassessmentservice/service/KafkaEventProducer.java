@@ -4,27 +4,35 @@ import com.example.riskassessmentservice.dto.DecisionEvent;
 import com.example.riskassessmentservice.model.RiskAssessment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
+@Profile("!read-pod")
 public class KafkaEventProducer {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaEventProducer.class);
-    private static final String DECISION_TOPIC = "decision-events"; // As per user requirements
+    public static final String DECISION_TOPIC = "decision-events"; // As per user requirements; keyed and compacted by applicationId
 
     private final KafkaTemplate<String, DecisionEvent> kafkaTemplate;
     private final MeterRegistry meterRegistry;
+    private final DebtToIncomeEngine debtToIncomeEngine;
 
     private final Counter decisionEventsProducedSuccessCounter;
     private final Counter decisionEventsProducedErrorCounter;
 
-    public KafkaEventProducer(KafkaTemplate<String, DecisionEvent> kafkaTemplate, MeterRegistry meterRegistry) {
+    public KafkaEventProducer(KafkaTemplate<String, DecisionEvent> kafkaTemplate, MeterRegistry meterRegistry,
+                              DebtToIncomeEngine debtToIncomeEngine) {
         this.kafkaTemplate = kafkaTemplate;
         this.meterRegistry = meterRegistry;
+        this.debtToIncomeEngine = debtToIncomeEngine;
 
         this.decisionEventsProducedSuccessCounter = Counter.builder("kafka.producer.messages")
             .tag("topic", DECISION_TOPIC)
@@ -39,21 +47,28 @@ public class KafkaEventProducer {
             .register(meterRegistry);
     }
 
-    public void sendDecisionEvent(RiskAssessment assessment) {
+    // Fire-and-forget callers can ignore the result; reassessment waits on it after committing
+    public CompletableFuture<SendResult<String, DecisionEvent>> sendDecisionEvent(RiskAssessment assessment) {
         DecisionEvent event = new DecisionEvent(
                 assessment.getApplicationId(),
                 assessment.getId(),
                 assessment.getDecision(),
                 assessment.getDecisionReason(),
-                assessment.getRiskScore()
+                assessment.getRiskScore(),
+                assessment.getCustomerId(),
+                assessment.getLoanAmount()
         );
+        // Serialized on send, before the caller can change the assessment again
+        event.setAssessment(assessment);
         try {
-            kafkaTemplate.send(DECISION_TOPIC, assessment.getApplicationId().toString(), event)
+            return kafkaTemplate.send(DECISION_TOPIC, assessment.getApplicationId().toString(), event)
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
                             log.info("Sent DecisionEvent for applicationId {}: offset = {}, partition = {}",
                                     event.getApplicationId(), result.getRecordMetadata().offset(), result.getRecordMetadata().partition());
                             decisionEventsProducedSuccessCounter.increment();
+                            // Only decisions that made it to the topic count towards the customer's obligations
+                            debtToIncomeEngine.applyDecision(event);
                         } else {
                             log.error("Failed to send DecisionEvent for applicationId {}: {}", event.getApplicationId(), ex.getMessage());
                             decisionEventsProducedErrorCounter.increment();
@@ -62,6 +77,7 @@ public class KafkaEventProducer {
         } catch (Exception e) {
             log.error("Exception while sending DecisionEvent for applicationId {}: {}", event.getApplicationId(), e.getMessage(), e);
             decisionEventsProducedErrorCounter.increment(); // Also count exceptions during send attempt as errors
+            return CompletableFuture.failedFuture(e);
         }
     }
 }
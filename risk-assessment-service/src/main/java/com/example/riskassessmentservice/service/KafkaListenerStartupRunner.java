@@ -0,0 +1,51 @@
+package com.example.riskassessmentservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Starts the listeners that do live work (scoring-events, loan-applications prefetch) once every warm-up
+// runner has returned (CacheWarmupRunner, JitWarmupRunner, DecisionEventMaterializer). They are declared
+// with autoStartup=false, so during warm-up they neither compete with it for Postgres, Redis and the
+// Central Bank API nor get scored on cold code.
+@Component
+@Profile("!read-pod")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class KafkaListenerStartupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaListenerStartupRunner.class);
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final List<String> listenerIds = new ArrayList<>();
+
+    public KafkaListenerStartupRunner(KafkaListenerEndpointRegistry listenerRegistry,
+                                      @Value("${risk.prefetch.enabled:true}") boolean prefetchEnabled) {
+        this.listenerRegistry = listenerRegistry;
+        listenerIds.add(ScoringConsumerBackpressure.LISTENER_ID);
+        if (prefetchEnabled) {
+            listenerIds.add(CreditReportPrefetcher.LISTENER_ID);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String listenerId : listenerIds) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+            if (container != null && !container.isRunning()) {
+                container.start();
+                log.info("Started Kafka listener {} after warm-up", listenerId);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.riskassessmentservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Keeps the monthly partitions of risk_assessments, risk_factors and external_api_calls
+// (see postgres/init.sql) created ahead of time and drops the ones past retention.
+@Service
+@Profile("!read-pod")
+public class PartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int monthsAhead;
+    private final boolean dropDetached;
+    // Table -> retention in months. risk_factors is handled before risk_assessments because of the
+    // partition-wise foreign key; drop_expired_partitions also detaches the referencing partitions of the
+    // same month first, so a detach-only run (drop-detached: false) never trips over the FK either.
+    private final Map<String, Integer> retentionMonths = new LinkedHashMap<>();
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${risk.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${risk.partitions.drop-detached:true}") boolean dropDetached,
+                                       @Value("${risk.partitions.retention.risk-assessments-months:84}") int assessmentRetentionMonths,
+                                       @Value("${risk.partitions.retention.external-api-calls-months:6}") int apiCallRetentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.monthsAhead = monthsAhead;
+        this.dropDetached = dropDetached;
+
+        this.retentionMonths.put("risk_factors", assessmentRetentionMonths);
+        this.retentionMonths.put("risk_assessments", assessmentRetentionMonths);
+        this.retentionMonths.put("external_api_calls", apiCallRetentionMonths);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${risk.partitions.maintenance-cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        retentionMonths.forEach((table, retention) -> {
+            try {
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT ensure_monthly_partitions(?, ?)", Integer.class, table, monthsAhead);
+                Integer removed = jdbcTemplate.queryForObject(
+                        "SELECT drop_expired_partitions(?, ?, ?)", Integer.class, table, retention, dropDetached);
+                log.info("Partition maintenance for {}: {} partition(s) created, {} partition(s) {} (retention {} months)",
+                        table, created, removed, dropDetached ? "dropped" : "detached", retention);
+                partitionCounter(table, "created").increment(created != null ? created : 0);
+                partitionCounter(table, dropDetached ? "dropped" : "detached").increment(removed != null ? removed : 0);
+            } catch (Exception e) {
+                log.error("Partition maintenance failed for table {}: {}", table, e.getMessage());
+                partitionCounter(table, "error").increment();
+            }
+        });
+    }
+
+    private Counter partitionCounter(String table, String action) {
+        return Counter.builder("db.partitions.maintenance")
+            .tag("table", table)
+            .tag("action", action)
+            .description("Number of partitions created or removed by partition maintenance")
+            .register(meterRegistry);
+    }
+}
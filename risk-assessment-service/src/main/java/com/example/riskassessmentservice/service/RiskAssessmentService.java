@@ -1,24 +1,40 @@
 package com.example.riskassessmentservice.service;
 
+import com.example.riskassessmentservice.cache.EarlyRefreshCoordinator;
+import com.example.riskassessmentservice.client.CentralBankApiClient;
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse;
+import com.example.riskassessmentservice.collateral.CollateralTable;
 import com.example.riskassessmentservice.dto.InitialScoringCompleteEvent;
+import com.example.riskassessmentservice.dto.ReassessmentRequest;
 import com.example.riskassessmentservice.model.RiskAssessment;
+import com.example.riskassessmentservice.model.RiskFactor;
 import com.example.riskassessmentservice.repository.RiskAssessmentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
+@Profile("!read-pod")
 public class RiskAssessmentService {
 
     private static final Logger log = LoggerFactory.getLogger(RiskAssessmentService.class);
@@ -28,24 +44,81 @@ public class RiskAssessmentService {
     private final com.example.riskassessmentservice.client.CentralBankApiClient centralBankApiClient;
     private final ReactiveRedisTemplate<String, RiskAssessment> riskAssessmentRedisTemplate;
     private final MeterRegistry meterRegistry;
+    private final DecisionStatsAggregator decisionStatsAggregator;
+    private final EarlyRefreshCoordinator earlyRefreshCoordinator;
+    private final Duration negativeCacheTtl;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration creditReportMaxAge;
+    private final Duration fraudCheckTtl;
+    private final RiskScoringPolicy scoringPolicy;
+    private final FraudVelocityEngine fraudVelocityEngine;
+    private final DuplicateApplicationDetector duplicateApplicationDetector;
+    private final CollateralValuationEngine collateralValuationEngine;
+    private final DebtToIncomeEngine debtToIncomeEngine;
+    private final ShadowScoringService shadowScoringService;
+    private final BigDecimal duplicateApplicationRisk;
+    private final Scheduler persistenceScheduler;
+    private final TimeToFirstAssessmentRecorder timeToFirstAssessmentRecorder;
 
     private static final String RISK_ASSESSMENT_CACHE_KEY_PREFIX = "risk_assessment:";
     private static final Duration RISK_ASSESSMENT_CACHE_TTL = Duration.ofHours(24); // Cache for 24 hours
+    private static final String RISK_ASSESSMENT_KEYSPACE = "risk_assessment";
+    private static final String NOT_FOUND_MARKER_DECISION = "__NOT_FOUND__"; // Decision of a negative cache entry, never persisted
+    private static final Duration RISK_ASSESSMENT_DEFAULT_RECOMPUTE_TIME = Duration.ofMillis(50); // Initial XFetch delta (one DB read)
+    private static final Duration DECISION_EVENT_SEND_TIMEOUT = Duration.ofSeconds(10);
+
+    // Persisted risk factors (risk_factors.factor_name); weights come from RiskScoringPolicy
+    static final String FACTOR_CREDIT_SCORE = "CREDIT_SCORE";
+    static final String FACTOR_DEBT_RATIO = "DEBT_RATIO";
+    static final String FACTOR_COLLATERAL = "COLLATERAL";
+    static final String FACTOR_FRAUD = "FRAUD";
 
     private final Counter riskAssessmentCacheHitsCounter;
     private final Counter riskAssessmentCacheMissesCounter;
+    private final Counter riskAssessmentNegativeCacheHitsCounter;
+    private final Counter riskAssessmentNegativeCacheStoresCounter;
     private final Counter riskAssessmentProcessedCounter;
 
     public RiskAssessmentService(RiskAssessmentRepository riskAssessmentRepository,
                                  KafkaEventProducer kafkaEventProducer,
                                  com.example.riskassessmentservice.client.CentralBankApiClient centralBankApiClient,
                                  ReactiveRedisTemplate<String, RiskAssessment> riskAssessmentRedisTemplate,
-                                 MeterRegistry meterRegistry) {
+                                 MeterRegistry meterRegistry,
+                                 DecisionStatsAggregator decisionStatsAggregator,
+                                 EarlyRefreshCoordinator earlyRefreshCoordinator,
+                                 @Value("${risk.cache.negative-ttl:30s}") Duration negativeCacheTtl,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${risk.reassessment.credit-report-max-age:1h}") Duration creditReportMaxAge,
+                                 @Value("${risk.reassessment.fraud-check-ttl:15m}") Duration fraudCheckTtl,
+                                 RiskScoringPolicy scoringPolicy,
+                                 FraudVelocityEngine fraudVelocityEngine,
+                                 DuplicateApplicationDetector duplicateApplicationDetector,
+                                 @Value("${risk.fraud.sketch.flagged-risk:0.30}") BigDecimal duplicateApplicationRisk,
+                                 CollateralValuationEngine collateralValuationEngine,
+                                 DebtToIncomeEngine debtToIncomeEngine,
+                                 ShadowScoringService shadowScoringService,
+                                 @Qualifier("persistenceScheduler") Scheduler persistenceScheduler,
+                                 TimeToFirstAssessmentRecorder timeToFirstAssessmentRecorder) {
         this.riskAssessmentRepository = riskAssessmentRepository;
         this.kafkaEventProducer = kafkaEventProducer;
         this.centralBankApiClient = centralBankApiClient;
         this.riskAssessmentRedisTemplate = riskAssessmentRedisTemplate;
         this.meterRegistry = meterRegistry;
+        this.decisionStatsAggregator = decisionStatsAggregator;
+        this.earlyRefreshCoordinator = earlyRefreshCoordinator;
+        this.negativeCacheTtl = negativeCacheTtl;
+        this.transactionTemplate = transactionTemplate;
+        this.creditReportMaxAge = creditReportMaxAge;
+        this.fraudCheckTtl = fraudCheckTtl;
+        this.scoringPolicy = scoringPolicy;
+        this.fraudVelocityEngine = fraudVelocityEngine;
+        this.duplicateApplicationDetector = duplicateApplicationDetector;
+        this.duplicateApplicationRisk = duplicateApplicationRisk;
+        this.collateralValuationEngine = collateralValuationEngine;
+        this.debtToIncomeEngine = debtToIncomeEngine;
+        this.shadowScoringService = shadowScoringService;
+        this.persistenceScheduler = persistenceScheduler;
+        this.timeToFirstAssessmentRecorder = timeToFirstAssessmentRecorder;
 
         this.riskAssessmentCacheHitsCounter = Counter.builder("cache.risk_assessment.requests")
             .tag("status", "hit")
@@ -57,6 +130,19 @@ public class RiskAssessmentService {
             .description("Number of cache misses for risk assessments")
             .register(meterRegistry);
 
+        this.riskAssessmentNegativeCacheHitsCounter = Counter.builder("cache.risk_assessment.requests")
+            .tag("status", "negative_hit")
+            .description("Number of lookups answered by a negative cache entry (application not scored yet)")
+            .register(meterRegistry);
+
+        this.riskAssessmentNegativeCacheStoresCounter = Counter.builder("cache.risk_assessment.negative_entries")
+            .description("Number of negative cache entries stored for unknown application IDs")
+            .register(meterRegistry);
+
+        Gauge.builder("cache.risk_assessment.negative_hit_ratio", this, RiskAssessmentService::negativeHitRatio)
+            .description("Share of risk assessment lookups answered by a negative cache entry")
+            .register(meterRegistry);
+
         this.riskAssessmentProcessedCounter = Counter.builder("risk_assessment.processed")
             .tag("status", "success") // Assuming we only count successful ones for now
             .description("Number of successfully processed risk assessments")
@@ -67,52 +153,23 @@ public class RiskAssessmentService {
         long startTime = System.currentTimeMillis();
         log.info("Starting risk assessment for application ID: {}", event.getApplicationId());
 
-        // Create a new RiskAssessment entity
-        RiskAssessment assessment = new RiskAssessment();
-        assessment.setApplicationId(event.getApplicationId());
-        assessment.setAssessmentDate(LocalDateTime.now());
-
-        return Mono.zip(
-                        centralBankApiClient.getCreditReport(event.getCustomerId(), event.getApplicationId()).subscribeOn(Schedulers.boundedElastic()),
-                        calculateDebtRatio(event.getIncome(), event.getLoanAmount()).subscribeOn(Schedulers.boundedElastic()),
-                        analyzeCollateral(event.getLoanAmount(), event.getLoanPurpose()).subscribeOn(Schedulers.boundedElastic()),
-                        performFraudCheck(event.getApplicationId(), event.getCustomerId()).subscribeOn(Schedulers.boundedElastic())
-                )
-                .flatMap(tuple -> {
-                    com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse centralBankResponse = tuple.getT1();
-                    DebtRatioResult debtRatioResult = tuple.getT2();
-                    CollateralAnalysisResult collateralResult = tuple.getT3();
-                    FraudCheckResult fraudResult = tuple.getT4();
-
-                    // Populate assessment with results
-                    assessment.setCreditScore(centralBankResponse.creditScore());
-                    assessment.setDebtRatio(debtRatioResult.debtRatioPercentage());
-                    // ... set other fields from collateralResult and fraudResult
-
-                    // Compute final score (simplified)
-                    BigDecimal finalScore = computeFinalScore(
-                            centralBankResponse, debtRatioResult, collateralResult, fraudResult, event.getInitialScoreWeight()
-                    );
-                    assessment.setRiskScore(finalScore);
-
-                    // Make a decision (simplified)
-                    if (finalScore.compareTo(BigDecimal.valueOf(60)) >= 0) { // Example threshold
-                        assessment.setDecision("APPROVED");
-                        assessment.setDecisionReason("Risk score above threshold.");
-                    } else {
-                        assessment.setDecision("REJECTED");
-                        assessment.setDecisionReason("Risk score below threshold.");
-                    }
-                    assessment.setProcessingTimeMs((int) (System.currentTimeMillis() - startTime));
-                    log.info("Risk assessment completed for application ID: {}. Decision: {}", event.getApplicationId(), assessment.getDecision());
+        RiskAssessment assessment = newAssessment(event);
 
-                    // Save to database (blocking call, run on boundedElastic scheduler)
-                    return Mono.fromCallable(() -> riskAssessmentRepository.save(assessment))
-                            .subscribeOn(Schedulers.boundedElastic())
+        return evaluate(event, assessment,
+                        // Non-blocking I/O (Redis + WebClient), no scheduler hop needed
+                        centralBankApiClient.getCreditReport(event.getCustomerId(), event.getApplicationId()),
+                        startTime, false)
+                .flatMap(evaluated -> {
+                    // Save to database (blocking call, run on the persistence scheduler)
+                    return Mono.fromCallable(() -> riskAssessmentRepository.save(evaluated))
+                            .subscribeOn(persistenceScheduler)
                             .doOnSuccess(savedAssessment -> {
                                 log.info("Successfully assessed and saved risk for application ID: {}. Decision: {}", savedAssessment.getApplicationId(), savedAssessment.getDecision());
                                 // Produce event to Kafka
                                 kafkaEventProducer.sendDecisionEvent(savedAssessment);
+                                // Feed the decision statistics read-model
+                                decisionStatsAggregator.record(event.getLoanPurpose(), savedAssessment);
+                                timeToFirstAssessmentRecorder.assessmentCompleted();
                                 // Cache the newly created/updated assessment
                                 String cacheKey = RISK_ASSESSMENT_CACHE_KEY_PREFIX + savedAssessment.getApplicationId();
                                 riskAssessmentRedisTemplate.opsForValue().set(cacheKey, savedAssessment, RISK_ASSESSMENT_CACHE_TTL)
@@ -124,7 +181,7 @@ public class RiskAssessmentService {
                                     .subscribe(); // Subscribe to execute cache operation
                             })
                             .doOnError(e -> log.error("Error saving risk assessment for application ID: {}: {}", event.getApplicationId(), e.getMessage()));
-                });
+                })
                 .timeout(Duration.ofSeconds(45))
                 .doOnError(error -> log.error("Error during risk assessment for application ID: {}: {}", event.getApplicationId(), error.getMessage()))
                 .onErrorResume(error -> {
@@ -133,65 +190,159 @@ public class RiskAssessmentService {
                     assessment.setDecisionReason("Processing error: " + error.getMessage());
                     assessment.setProcessingTimeMs((int) (System.currentTimeMillis() - startTime));
                     return Mono.fromCallable(() -> riskAssessmentRepository.save(assessment))
-                            .subscribeOn(Schedulers.boundedElastic())
+                            .subscribeOn(persistenceScheduler)
+                            // Drop a negative cache entry so polls see the ERROR assessment
+                            .then(riskAssessmentRedisTemplate.delete(RISK_ASSESSMENT_CACHE_KEY_PREFIX + event.getApplicationId()).onErrorResume(e -> Mono.empty()))
                             .thenReturn(assessment); // Return the assessment with error status
                 });
     }
 
-    // Placeholder for Debt Service Ratio Calculation
-    private Mono<DebtRatioResult> calculateDebtRatio(BigDecimal monthlyIncome, BigDecimal loanAmount) {
-        log.info("Calculating Debt Ratio for income: {} and loan amount: {}", monthlyIncome, loanAmount);
-        // Simplified: Assume total monthly debt is 30% of income for this example
-        BigDecimal totalMonthlyDebt = monthlyIncome.multiply(BigDecimal.valueOf(0.3));
-        BigDecimal debtRatio = BigDecimal.ZERO;
-        if (monthlyIncome.compareTo(BigDecimal.ZERO) > 0) {
-            debtRatio = totalMonthlyDebt.divide(monthlyIncome, 4, java.math.RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
-        }
-        return Mono.just(new DebtRatioResult(debtRatio, "Calculated"));
+    // Same scoring pipeline as assessRisk, fed with the given credit report and without any side effect
+    // (no DB, Kafka, Redis, decision stats or startup metrics) and without the per-assessment INFO logs.
+    // Used by JitWarmupRunner before readiness.
+    public Mono<RiskAssessment> assessRiskDryRun(InitialScoringCompleteEvent event, CentralBankCreditResponse creditReport) {
+        return evaluate(event, newAssessment(event), Mono.just(creditReport), System.currentTimeMillis(), true)
+                .timeout(Duration.ofSeconds(45));
     }
 
-    // Placeholder for Collateral Analysis
-    private Mono<CollateralAnalysisResult> analyzeCollateral(BigDecimal loanAmount, String loanPurpose) {
-        log.info("Analyzing Collateral for loan amount: {} and purpose: {}", loanAmount, loanPurpose);
-        // Simplified mock result
-        return Mono.just(new CollateralAnalysisResult(loanAmount.multiply(BigDecimal.valueOf(0.8)), "Property Verified"));
+    private static RiskAssessment newAssessment(InitialScoringCompleteEvent event) {
+        RiskAssessment assessment = new RiskAssessment();
+        assessment.setApplicationId(event.getApplicationId());
+        assessment.setCustomerId(event.getCustomerId());
+        assessment.setAssessmentDate(LocalDateTime.now());
+        assessment.setLoanAmount(event.getLoanAmount());
+        assessment.setIncome(event.getIncome());
+        assessment.setLoanPurpose(event.getLoanPurpose());
+        assessment.setInitialScoreWeight(event.getInitialScoreWeight());
+        return assessment;
+    }
+
+    // Runs the factor stages, scores them and fills the assessment in (factors, score, decision).
+    // A dry run isn't counted in the fraud velocity windows, isn't shadow-scored and doesn't log per stage.
+    private Mono<RiskAssessment> evaluate(InitialScoringCompleteEvent event, RiskAssessment assessment,
+                                          Mono<CentralBankCreditResponse> creditReport, long startTime, boolean dryRun) {
+        return Mono.zip(
+                        creditReport,
+                        // Pure CPU stages run inline on the calling thread (the debt ratio only waits for Redis on a cache miss)
+                        calculateDebtRatio(event.getApplicationId(), event.getCustomerId(), event.getIncome(), event.getLoanAmount(), dryRun),
+                        analyzeCollateral(event.getLoanAmount(), event.getLoanPurpose(), dryRun),
+                        performFraudCheck(event.getApplicationId(), event.getCustomerId(), event.getLoanAmount(), event.getIncome(), event.getLoanPurpose(), !dryRun, dryRun)
+                )
+                .map(tuple -> {
+                    CentralBankCreditResponse centralBankResponse = tuple.getT1();
+                    DebtRatioResult debtRatioResult = tuple.getT2();
+                    CollateralAnalysisResult collateralResult = tuple.getT3();
+                    FraudCheckResult fraudResult = tuple.getT4();
+
+                    // Populate assessment with results
+                    assessment.setCreditScore(centralBankResponse.creditScore());
+                    assessment.setCreditReportStale(CentralBankApiClient.STATUS_STALE_CACHE.equals(centralBankResponse.status()));
+                    assessment.setDebtRatio(debtRatioResult.debtRatioPercentage());
+
+                    // Compute final score (simplified)
+                    RiskScoringPolicy.Score score = computeFinalScore(event.getApplicationId(), centralBankResponse, debtRatioResult, collateralResult, fraudResult,
+                            event.getInitialScoreWeight(), !dryRun);
+                    assessment.setRiskScore(score.finalScore());
+
+                    // Persist every factor with its inputs' timestamp so reassessment can reuse it
+                    LocalDateTime computedAt = LocalDateTime.now();
+                    updateFactor(assessment, FACTOR_CREDIT_SCORE, BigDecimal.valueOf(centralBankResponse.creditScore()), scoringPolicy.creditScoreWeight(), score.creditComponent(), computedAt);
+                    updateFactor(assessment, FACTOR_DEBT_RATIO, debtRatioResult.debtRatioPercentage(), scoringPolicy.debtRatioWeight(), score.debtRatioComponent(), computedAt);
+                    updateFactor(assessment, FACTOR_COLLATERAL, collateralResult.verifiedValue(), scoringPolicy.collateralWeight(), score.collateralComponent(), computedAt);
+                    updateFactor(assessment, FACTOR_FRAUD, fraudResult.fraudRiskScore(), scoringPolicy.fraudWeight(), score.fraudComponent(), computedAt);
+
+                    // Make a decision (simplified)
+                    assessment.setDecision(score.decision());
+                    assessment.setDecisionReason(score.decisionReason());
+                    assessment.setProcessingTimeMs((int) (System.currentTimeMillis() - startTime));
+                    if (!dryRun) {
+                        log.info("Risk assessment completed for application ID: {}. Decision: {}", event.getApplicationId(), assessment.getDecision());
+                    }
+                    return assessment;
+                });
     }
 
-    // Placeholder for Fraud Detection
-    private Mono<FraudCheckResult> performFraudCheck(UUID applicationId, String customerId) {
-        log.info("Performing Fraud Check for application ID: {} and customer ID: {}", applicationId, customerId);
-        // Simplified mock result
-        return Mono.just(new FraudCheckResult(BigDecimal.valueOf(0.05), "No obvious fraud detected")); // 5% fraud risk
+    private double negativeHitRatio() {
+        double negativeHits = riskAssessmentNegativeCacheHitsCounter.count();
+        double total = negativeHits + riskAssessmentCacheHitsCounter.count() + riskAssessmentCacheMissesCounter.count();
+        return total > 0 ? negativeHits / total : 0;
     }
 
-    private BigDecimal computeFinalScore(com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse cbr, DebtRatioResult drr, CollateralAnalysisResult car, FraudCheckResult fcr, Double initialWeight) {
-        // Simplified scoring - weights from requirements
-        // Central Bank Score (normalized, assuming 300-850 range -> 0-100)
-        // If API status is not OK (e.g. API_UNAVAILABLE), use a low score like 0 or a penalty.
-        double cbScoreValue = cbr.creditScore();
-        if (!"OK".equalsIgnoreCase(cbr.status()) && cbr.creditScore() <=0) { // Assuming mock API returns "OK" on success
-             // Or use a specific low score if API was unavailable, e.g. 300 or lower
-            cbScoreValue = 300; // Default to lowest score if API failed or indicated an issue
+    // Existing obligations (the customer's approved loans, cached aggregates) plus the new loan's payment; see DebtToIncomeEngine
+    private Mono<DebtRatioResult> calculateDebtRatio(UUID applicationId, String customerId, BigDecimal monthlyIncome, BigDecimal loanAmount, boolean dryRun) {
+        if (!dryRun) {
+            log.info("Calculating Debt Ratio for customer ID: {}, income: {} and loan amount: {}", customerId, monthlyIncome, loanAmount);
         }
-        double cbScoreNormalized = Math.max(0, Math.min(100, (cbScoreValue - 300.0) / (850.0 - 300.0) * 100.0));
-        BigDecimal centralBankScoreComponent = BigDecimal.valueOf(cbScoreNormalized * 0.35);
+        // A dry run (JIT warm-up) mustn't read Redis or fill the obligations cache with made-up customers
+        Mono<DebtToIncomeEngine.DebtToIncome> debtToIncome = dryRun
+                ? Mono.fromSupplier(() -> debtToIncomeEngine.assessWithoutObligations(monthlyIncome, loanAmount))
+                : debtToIncomeEngine.assess(applicationId, customerId, monthlyIncome, loanAmount);
+        return debtToIncome.map(dti -> new DebtRatioResult(dti.debtRatioPercentage(), dti.details()));
+    }
 
-        // Debt Ratio Score (lower is better, e.g., <30 Low, 30-50 Med, >50 High -> map to score)
-        double debtRatioScoreValue;
-        if (drr.debtRatioPercentage().doubleValue() < 30) debtRatioScoreValue = 100;
-        else if (drr.debtRatioPercentage().doubleValue() <= 50) debtRatioScoreValue = 60;
-        else debtRatioScoreValue = 20;
-        BigDecimal debtRatioScoreComponent = BigDecimal.valueOf(debtRatioScoreValue * 0.30);
+    // Table-driven collateral valuation (memory-mapped reference table); see CollateralValuationEngine.
+    // Scoring events carry no region or asset type yet, so those match the table's wildcard rows.
+    private Mono<CollateralAnalysisResult> analyzeCollateral(BigDecimal loanAmount, String loanPurpose, boolean dryRun) {
+        if (!dryRun) {
+            log.info("Analyzing Collateral for loan amount: {} and purpose: {}", loanAmount, loanPurpose);
+        }
+        CollateralValuationEngine.CollateralValuation valuation = collateralValuationEngine.valuate(
+                loanAmount, loanPurpose, CollateralTable.WILDCARD, CollateralTable.WILDCARD);
+        return Mono.just(new CollateralAnalysisResult(valuation.verifiedValue(), valuation.details()));
+    }
 
-        // Collateral Score (mocked, assume higher LTV is better or some other metric)
-        // For simplicity, let's use a fixed score based on verification
-        BigDecimal collateralScoreComponent = BigDecimal.valueOf(car.verifiedValue().doubleValue() > 0 ? 80 * 0.20 : 30 * 0.20);
+    // Velocity-based fraud risk plus repeated-application detection (in memory; the velocity cluster view is
+    // read from Redis first when its sync is enabled, except in dry runs); see FraudVelocityEngine and
+    // DuplicateApplicationDetector
+    private Mono<FraudCheckResult> performFraudCheck(UUID applicationId, String customerId, BigDecimal loanAmount, BigDecimal income,
+                                                     String loanPurpose, boolean recordApplication, boolean dryRun) {
+        if (!dryRun) {
+            log.info("Performing Fraud Check for application ID: {} and customer ID: {}", applicationId, customerId);
+        }
+        Mono<FraudVelocityEngine.VelocityAssessment> velocityCheck = dryRun
+                ? Mono.fromSupplier(() -> fraudVelocityEngine.assess(customerId, loanAmount, income, recordApplication))
+                : fraudVelocityEngine.assessClusterWide(customerId, loanAmount, income, recordApplication);
+        return velocityCheck.map(velocity -> {
+            DuplicateApplicationDetector.DuplicateCheck duplicates = duplicateApplicationDetector.check(customerId, loanAmount, loanPurpose, recordApplication);
+            if (!duplicates.flagged()) {
+                return new FraudCheckResult(velocity.fraudRiskScore(), velocity.details());
+            }
+            BigDecimal fraudRisk = velocity.fraudRiskScore().add(duplicateApplicationRisk).min(new BigDecimal("0.99"));
+            return new FraudCheckResult(fraudRisk, velocity.details() + "; " + duplicates.details());
+        });
+    }
 
-        // Fraud Check Score (lower risk is better)
-        BigDecimal fraudScoreComponent = BigDecimal.valueOf((1 - fcr.fraudRiskScore().doubleValue()) * 100 * 0.15);
+    // Live decisions (shadow = true) are also handed to the challenger scorers; that only enqueues, see ShadowScoringService
+    private RiskScoringPolicy.Score computeFinalScore(UUID applicationId, CentralBankCreditResponse cbr, DebtRatioResult drr, CollateralAnalysisResult car,
+                                                     FraudCheckResult fcr, Double initialWeight, boolean shadow) {
+        RiskScoringPolicy.ScoringInputs inputs = new RiskScoringPolicy.ScoringInputs(
+                cbr.creditScore(), cbr.status(), drr.debtRatioPercentage(), car.verifiedValue(), fcr.fraudRiskScore(), initialWeight);
+        RiskScoringPolicy.Score score = scoringPolicy.score(inputs);
+        if (shadow) {
+            shadowScoringService.submit(applicationId, inputs, score);
+        }
+        return score;
+    }
 
-        BigDecimal rawFinalScore = centralBankScoreComponent.add(debtRatioScoreComponent).add(collateralScoreComponent).add(fraudScoreComponent);
-        return rawFinalScore.multiply(BigDecimal.valueOf(initialWeight != null ? initialWeight : 1.0)); // Apply initial score weight
+    // Updates the named factor in place (or adds it); computedAt is only moved when the value was recomputed
+    private static void updateFactor(RiskAssessment assessment, String name, BigDecimal value, BigDecimal weight, BigDecimal contribution, LocalDateTime computedAt) {
+        RiskFactor factor = assessment.getRiskFactors().stream()
+            .filter(f -> name.equals(f.getFactorName()))
+            .findFirst()
+            .orElseGet(() -> {
+                RiskFactor created = new RiskFactor();
+                created.setAssessment(assessment);
+                created.setAssessmentDate(assessment.getAssessmentDate());
+                created.setFactorName(name);
+                assessment.getRiskFactors().add(created);
+                return created;
+            });
+        factor.setWeight(weight);
+        factor.setContribution(contribution.setScale(2, java.math.RoundingMode.HALF_UP));
+        if (computedAt != null) {
+            factor.setFactorValue(value);
+            factor.setComputedAt(computedAt);
+        }
     }
 
     public Mono<RiskAssessment> getRiskAssessmentByApplicationId(UUID applicationId) {
@@ -199,48 +350,244 @@ public class RiskAssessmentService {
         log.info("Attempting to fetch risk assessment for application ID: {} from cache/DB", applicationId);
 
         return riskAssessmentRedisTemplate.opsForValue().get(cacheKey)
-            .doOnSuccess(assessment -> {
-                if (assessment != null) {
-                    log.info("Cache hit for risk assessment, application ID: {}", applicationId);
-                    riskAssessmentCacheHitsCounter.increment();
-                } else {
-                     // This case implies the key existed but held null, or was an empty Mono.
-                    log.info("Cache returned empty for risk assessment, application ID: {}. Treating as miss.", applicationId);
-                    riskAssessmentCacheMissesCounter.increment();
+            .map(cached -> {
+                if (isNotFoundMarker(cached)) {
+                    // Application not scored yet; answered from the negative cache without touching the DB
+                    log.info("Negative cache hit for risk assessment, application ID: {}", applicationId);
+                    riskAssessmentNegativeCacheHitsCounter.increment();
+                    return Optional.<RiskAssessment>empty();
                 }
+                log.info("Cache hit for risk assessment, application ID: {}", applicationId);
+                riskAssessmentCacheHitsCounter.increment();
+                refreshAssessmentEarlyIfDue(applicationId, cacheKey);
+                return Optional.of(cached);
             })
             .switchIfEmpty(Mono.defer(() -> {
                 log.info("Cache miss for risk assessment, application ID: {}. Fetching from database.", applicationId);
                 riskAssessmentCacheMissesCounter.increment();
-                // Assuming RiskAssessmentRepository has findByApplicationId method
-                return Mono.fromCallable(() -> riskAssessmentRepository.findByApplicationId(applicationId))
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .flatMap(optionalAssessment -> optionalAssessment.map(Mono::just).orElseGet(() -> {
-                        log.warn("No risk assessment found in DB for application ID: {}", applicationId);
-                        return Mono.empty(); // Or Mono.error if it's an exceptional case not to find one
-                    }))
-                    .doOnSuccess(assessmentFromDb -> {
-                        if (assessmentFromDb != null) {
-                            riskAssessmentRedisTemplate.opsForValue().set(cacheKey, assessmentFromDb, RISK_ASSESSMENT_CACHE_TTL)
-                                .doOnSuccess(aVoid -> log.info("Successfully cached risk assessment from DB for application ID: {}", applicationId))
-                                .doOnError(cacheError -> log.error("Failed to cache risk assessment from DB for application ID: {}: {}", applicationId, cacheError.getMessage()))
-                                .subscribe();
+                // Concurrent misses for the same key share a single database load
+                return earlyRefreshCoordinator.coalesce(cacheKey, () -> loadAssessmentAndCache(applicationId, cacheKey))
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty());
+            }))
+            .flatMap(Mono::justOrEmpty);
+    }
+
+    // Probabilistic early refresh (XFetch) of a cached assessment; never delays the caller
+    private void refreshAssessmentEarlyIfDue(UUID applicationId, String cacheKey) {
+        riskAssessmentRedisTemplate.getExpire(cacheKey)
+            .filter(ttl -> earlyRefreshCoordinator.shouldRefreshEarly(RISK_ASSESSMENT_KEYSPACE, ttl, RISK_ASSESSMENT_DEFAULT_RECOMPUTE_TIME))
+            .subscribe(
+                ttl -> earlyRefreshCoordinator.refreshInBackground(RISK_ASSESSMENT_KEYSPACE, cacheKey,
+                        () -> loadAssessmentAndCache(applicationId, cacheKey)),
+                error -> log.warn("Failed to read TTL of cached risk assessment for application ID: {}: {}", applicationId, error.getMessage()));
+    }
+
+    private Mono<RiskAssessment> loadAssessmentAndCache(UUID applicationId, String cacheKey) {
+        return Mono.fromCallable(() -> riskAssessmentRepository.findByApplicationId(applicationId))
+            .subscribeOn(persistenceScheduler)
+            .flatMap(optionalAssessment -> optionalAssessment.map(Mono::just).orElseGet(() -> {
+                log.warn("No risk assessment found in DB for application ID: {}", applicationId);
+                return cacheNotFound(applicationId, cacheKey).then(Mono.empty());
+            }))
+            .flatMap(assessmentFromDb -> riskAssessmentRedisTemplate.opsForValue().set(cacheKey, assessmentFromDb, RISK_ASSESSMENT_CACHE_TTL)
+                .doOnSuccess(aBoolean -> log.info("Successfully cached risk assessment from DB for application ID: {}", applicationId))
+                .doOnError(cacheError -> log.error("Failed to cache risk assessment from DB for application ID: {}: {}", applicationId, cacheError.getMessage()))
+                .onErrorResume(cacheError -> Mono.empty())
+                .thenReturn(assessmentFromDb));
+    }
+
+    // Used by the startup warm-up; never overwrites an entry written meanwhile by live traffic
+    public Mono<Boolean> primeCache(RiskAssessment assessment) {
+        return riskAssessmentRedisTemplate.opsForValue()
+            .setIfAbsent(RISK_ASSESSMENT_CACHE_KEY_PREFIX + assessment.getApplicationId(), assessment, RISK_ASSESSMENT_CACHE_TTL);
+    }
+
+    // Short-lived negative entry stored under the assessment's own key, so a poll costs one GET and the
+    // SET done by assessRisk replaces it immediately. SET NX keeps it from overwriting a fresh assessment
+    // that was cached between our DB read and this write.
+    private Mono<Boolean> cacheNotFound(UUID applicationId, String cacheKey) {
+        return riskAssessmentRedisTemplate.opsForValue().setIfAbsent(cacheKey, notFoundMarker(applicationId), negativeCacheTtl)
+            .doOnSuccess(stored -> {
+                if (Boolean.TRUE.equals(stored)) {
+                    riskAssessmentNegativeCacheStoresCounter.increment();
+                }
+            })
+            .doOnError(cacheError -> log.error("Failed to store negative cache entry for application ID: {}: {}", applicationId, cacheError.getMessage()))
+            .onErrorResume(cacheError -> Mono.just(false));
+    }
+
+    private static RiskAssessment notFoundMarker(UUID applicationId) {
+        RiskAssessment marker = new RiskAssessment();
+        marker.setId(null);
+        marker.setApplicationId(applicationId);
+        marker.setDecision(NOT_FOUND_MARKER_DECISION);
+        return marker;
+    }
+
+    private static boolean isNotFoundMarker(RiskAssessment assessment) {
+        return NOT_FOUND_MARKER_DECISION.equals(assessment.getDecision());
+    }
+
+    // Incremental reassessment: loads the stored assessment with its factors and recomputes only the
+    // factors whose inputs changed or whose result expired. Everything else is rebuilt from the stored
+    // factor values, so e.g. a changed score weight costs no external call at all and a changed income
+    // only reruns the debt ratio. Empty if the application has never been assessed.
+    public Mono<RiskAssessment> reassessRisk(UUID applicationId, ReassessmentRequest request) {
+        long startTime = System.currentTimeMillis();
+        ReassessmentRequest changes = request != null ? request : ReassessmentRequest.none();
+        log.info("Starting reassessment for application ID: {} with changes {}", applicationId, changes);
+
+        return Mono.fromCallable(() -> riskAssessmentRepository.findByApplicationId(applicationId))
+            .subscribeOn(persistenceScheduler)
+            .flatMap(Mono::justOrEmpty)
+            .flatMap(stored -> {
+                ReassessmentPlan plan = planReassessment(stored, changes);
+                log.info("Reassessment plan for application ID: {}: {}", applicationId, plan);
+                return Mono.zip(
+                        plan.creditScore() ? fetchCreditReport(stored) : Mono.just(reusedCreditReport(stored)),
+                        plan.debtRatio() ? calculateDebtRatio(applicationId, stored.getCustomerId(), plan.income(), plan.loanAmount(), false) : Mono.just(new DebtRatioResult(storedValue(stored, FACTOR_DEBT_RATIO), "Reused")),
+                        plan.collateral() ? analyzeCollateral(plan.loanAmount(), plan.loanPurpose(), false) : Mono.just(new CollateralAnalysisResult(storedValue(stored, FACTOR_COLLATERAL), "Reused")),
+                        plan.fraud() ? performFraudCheck(applicationId, stored.getCustomerId(), plan.loanAmount(), plan.income(), plan.loanPurpose(), false, false) : Mono.just(new FraudCheckResult(storedValue(stored, FACTOR_FRAUD), "Reused"))
+                    )
+                    .map(tuple -> {
+                        CentralBankCreditResponse centralBankResponse = tuple.getT1();
+                        DebtRatioResult debtRatioResult = tuple.getT2();
+                        CollateralAnalysisResult collateralResult = tuple.getT3();
+                        FraudCheckResult fraudResult = tuple.getT4();
+
+                        stored.setLoanAmount(plan.loanAmount());
+                        stored.setIncome(plan.income());
+                        stored.setLoanPurpose(plan.loanPurpose());
+                        stored.setInitialScoreWeight(plan.initialScoreWeight());
+                        stored.setCreditScore(centralBankResponse.creditScore());
+                        if (plan.creditScore()) {
+                            stored.setCreditReportStale(CentralBankApiClient.STATUS_STALE_CACHE.equals(centralBankResponse.status()));
                         }
+                        stored.setDebtRatio(debtRatioResult.debtRatioPercentage());
+
+                        RiskScoringPolicy.Score score = computeFinalScore(applicationId, centralBankResponse, debtRatioResult, collateralResult, fraudResult,
+                                plan.initialScoreWeight(), true);
+                        stored.setRiskScore(score.finalScore());
+
+                        LocalDateTime now = LocalDateTime.now();
+                        updateFactor(stored, FACTOR_CREDIT_SCORE, BigDecimal.valueOf(centralBankResponse.creditScore()), scoringPolicy.creditScoreWeight(), score.creditComponent(), plan.creditScore() ? now : null);
+                        updateFactor(stored, FACTOR_DEBT_RATIO, debtRatioResult.debtRatioPercentage(), scoringPolicy.debtRatioWeight(), score.debtRatioComponent(), plan.debtRatio() ? now : null);
+                        updateFactor(stored, FACTOR_COLLATERAL, collateralResult.verifiedValue(), scoringPolicy.collateralWeight(), score.collateralComponent(), plan.collateral() ? now : null);
+                        updateFactor(stored, FACTOR_FRAUD, fraudResult.fraudRiskScore(), scoringPolicy.fraudWeight(), score.fraudComponent(), plan.fraud() ? now : null);
+
+                        stored.setDecision(score.decision());
+                        stored.setDecisionReason(score.decisionReason());
+                        stored.setUpdatedAt(now); // assessment_date is the partition key and stays untouched
+                        stored.setProcessingTimeMs((int) (System.currentTimeMillis() - startTime));
+                        recordReassessedFactors(plan);
+                        return stored;
                     });
-            }));
+            })
+            .flatMap(this::commitReassessment)
+            .doOnSuccess(reassessed -> {
+                if (reassessed != null) {
+                    log.info("Reassessment completed for application ID: {}. Decision: {} in {} ms", applicationId, reassessed.getDecision(), reassessed.getProcessingTimeMs());
+                }
+            })
+            .doOnError(error -> log.error("Error during reassessment for application ID: {}: {}", applicationId, error.getMessage()));
+    }
+
+    private ReassessmentPlan planReassessment(RiskAssessment stored, ReassessmentRequest changes) {
+        BigDecimal loanAmount = changes.loanAmount() != null ? changes.loanAmount() : stored.getLoanAmount();
+        BigDecimal income = changes.income() != null ? changes.income() : stored.getIncome();
+        String loanPurpose = changes.loanPurpose() != null ? changes.loanPurpose() : stored.getLoanPurpose();
+        Double initialScoreWeight = changes.initialScoreWeight() != null ? changes.initialScoreWeight() : stored.getInitialScoreWeight();
+
+        boolean loanAmountChanged = changes.loanAmount() != null && (stored.getLoanAmount() == null || changes.loanAmount().compareTo(stored.getLoanAmount()) != 0);
+        boolean incomeChanged = changes.income() != null && (stored.getIncome() == null || changes.income().compareTo(stored.getIncome()) != 0);
+        boolean loanPurposeChanged = changes.loanPurpose() != null && !changes.loanPurpose().equals(stored.getLoanPurpose());
+
+        Map<String, RiskFactor> factors = stored.getRiskFactors().stream()
+            .filter(f -> f.getFactorName() != null && f.getFactorValue() != null)
+            .collect(Collectors.toMap(RiskFactor::getFactorName, Function.identity(), (a, b) -> a));
+        RiskFactor creditFactor = factors.get(FACTOR_CREDIT_SCORE);
+
+        ReassessmentPlan plan = new ReassessmentPlan(
+                // A score of 0 means the Central Bank call failed last time, and a stale report was only a stand-in, so both are always retried
+                changes.forceRefresh() || creditFactor == null || creditFactor.getFactorValue().signum() <= 0 || stored.isCreditReportStale()
+                        || isExpired(creditFactor, creditReportMaxAge),
+                !factors.containsKey(FACTOR_DEBT_RATIO) || loanAmountChanged || incomeChanged,
+                !factors.containsKey(FACTOR_COLLATERAL) || loanAmountChanged || loanPurposeChanged,
+                changes.forceRefresh() || !factors.containsKey(FACTOR_FRAUD) || isExpired(factors.get(FACTOR_FRAUD), fraudCheckTtl),
+                loanAmount, income, loanPurpose, initialScoreWeight);
+
+        // Assessments stored before inputs were persisted can only be reassessed when the caller supplies them
+        if ((plan.debtRatio() && (income == null || loanAmount == null)) || (plan.collateral() && (loanAmount == null || loanPurpose == null))) {
+            throw new IllegalArgumentException("Stored assessment for application " + stored.getApplicationId()
+                    + " lacks the inputs needed to recompute its factors; provide loanAmount, income and loanPurpose");
+        }
+        if (plan.creditScore() && stored.getCustomerId() == null) {
+            throw new IllegalArgumentException("Stored assessment for application " + stored.getApplicationId() + " has no customer ID to fetch a credit report for");
+        }
+        return plan;
+    }
+
+    private static boolean isExpired(RiskFactor factor, Duration maxAge) {
+        return factor.getComputedAt() == null || factor.getComputedAt().plus(maxAge).isBefore(LocalDateTime.now());
+    }
+
+    private static BigDecimal storedValue(RiskAssessment assessment, String factorName) {
+        return assessment.getRiskFactors().stream()
+            .filter(f -> factorName.equals(f.getFactorName()))
+            .map(RiskFactor::getFactorValue)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    // Goes through the client, so a report still in the Redis credit cache costs no Central Bank call
+    private Mono<CentralBankCreditResponse> fetchCreditReport(RiskAssessment stored) {
+        return centralBankApiClient.getCreditReport(stored.getCustomerId(), stored.getApplicationId());
+    }
+
+    private static CentralBankCreditResponse reusedCreditReport(RiskAssessment stored) {
+        return new CentralBankCreditResponse(stored.getCustomerId(), storedValue(stored, FACTOR_CREDIT_SCORE).intValue(), "OK", "Reused from stored risk factor");
+    }
+
+    private void recordReassessedFactors(ReassessmentPlan plan) {
+        recordReassessedFactor(FACTOR_CREDIT_SCORE, plan.creditScore());
+        recordReassessedFactor(FACTOR_DEBT_RATIO, plan.debtRatio());
+        recordReassessedFactor(FACTOR_COLLATERAL, plan.collateral());
+        recordReassessedFactor(FACTOR_FRAUD, plan.fraud());
+    }
+
+    private void recordReassessedFactor(String factorName, boolean recomputed) {
+        Counter.builder("risk_assessment.reassessment.factors")
+            .tag("factor", factorName)
+            .tag("outcome", recomputed ? "recomputed" : "reused")
+            .description("Risk factors recomputed or reused from the stored assessment on reassessment")
+            .register(meterRegistry)
+            .increment();
     }
 
-    // Placeholder for Reassessment - would also need cache update/invalidation logic
-    public Mono<RiskAssessment> reassessRisk(UUID applicationId) {
-        log.warn("Reassessment for application ID {} not fully implemented. Placeholder.", applicationId);
-        // 1. Fetch existing assessment (potentially from cache/DB using getRiskAssessmentByApplicationId)
-        // 2. Perform reassessment logic (e.g., re-evaluate certain factors, re-run external calls if necessary)
-        // 3. Update the RiskAssessment object
-        // 4. Save the updated assessment to the database
-        // 5. Update the cache with the new assessment (overwrite existing entry for this applicationId)
-        // 6. Produce a decision event to Kafka
-        // For now, just return error to indicate it's a placeholder
-        return Mono.error(new UnsupportedOperationException("Reassessment for application ID " + applicationId + " not implemented yet."));
+    // The row and its factors are written in one transaction. The decision event is only published once that
+    // transaction has committed, so consumers (read stores, obligations) never see a decision that could
+    // still roll back; if the publish fails the update stays committed and the reassessment fails, so the
+    // caller retries it. The cache is written last and, if that fails, the key is dropped so readers fall
+    // back to the committed row.
+    private Mono<RiskAssessment> commitReassessment(RiskAssessment assessment) {
+        String cacheKey = RISK_ASSESSMENT_CACHE_KEY_PREFIX + assessment.getApplicationId();
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> riskAssessmentRepository.saveAndFlush(assessment)))
+            .subscribeOn(persistenceScheduler)
+            .flatMap(saved -> Mono.fromFuture(() -> kafkaEventProducer.sendDecisionEvent(saved))
+                .timeout(DECISION_EVENT_SEND_TIMEOUT)
+                .onErrorResume(publishError -> riskAssessmentRedisTemplate.delete(cacheKey)
+                    .onErrorResume(e -> Mono.just(0L))
+                    .then(Mono.error(new IllegalStateException("Reassessment of application " + saved.getApplicationId()
+                            + " was committed but its decision event was not published", publishError))))
+                .thenReturn(saved))
+            .flatMap(saved -> riskAssessmentRedisTemplate.opsForValue().set(cacheKey, saved, RISK_ASSESSMENT_CACHE_TTL)
+                .doOnSuccess(stored -> log.info("Successfully cached reassessed risk for application ID: {}", saved.getApplicationId()))
+                .onErrorResume(cacheError -> {
+                    log.error("Failed to cache reassessed risk for application ID: {}, invalidating: {}", saved.getApplicationId(), cacheError.getMessage());
+                    return riskAssessmentRedisTemplate.delete(cacheKey).thenReturn(false).onErrorResume(e -> Mono.just(false));
+                })
+                .thenReturn(saved));
     }
 
     // Inner DTOs for task results (can be moved to separate files if they grow)
@@ -248,4 +595,7 @@ public class RiskAssessmentService {
     private record DebtRatioResult(BigDecimal debtRatioPercentage, String details) {}
     private record CollateralAnalysisResult(BigDecimal verifiedValue, String details) {}
     private record FraudCheckResult(BigDecimal fraudRiskScore, String details) {}
+    // Which factors a reassessment recomputes, and the effective inputs (stored values overlaid with the request)
+    private record ReassessmentPlan(boolean creditScore, boolean debtRatio, boolean collateral, boolean fraud,
+                                    BigDecimal loanAmount, BigDecimal income, String loanPurpose, Double initialScoreWeight) {}
 }
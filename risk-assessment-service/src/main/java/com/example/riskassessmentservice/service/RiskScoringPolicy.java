@@ -0,0 +1,126 @@
+package com.example.riskassessmentservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Turns the four risk factor values into the final risk score and decision. Weights and the approval
+// threshold are configuration (risk.scoring.*), so changing them is a deploy plus a bulk re-scoring run
+// (BulkRescoringJob) rather than a code change. Pure and thread-safe; no I/O.
+@Component
+@Profile("!read-pod")
+public class RiskScoringPolicy {
+
+    private final BigDecimal creditScoreWeight;
+    private final BigDecimal debtRatioWeight;
+    private final BigDecimal collateralWeight;
+    private final BigDecimal fraudWeight;
+    private final BigDecimal approvalThreshold;
+
+    public RiskScoringPolicy(@Value("${risk.scoring.weights.credit-score:0.35}") BigDecimal creditScoreWeight,
+                             @Value("${risk.scoring.weights.debt-ratio:0.30}") BigDecimal debtRatioWeight,
+                             @Value("${risk.scoring.weights.collateral:0.20}") BigDecimal collateralWeight,
+                             @Value("${risk.scoring.weights.fraud:0.15}") BigDecimal fraudWeight,
+                             @Value("${risk.scoring.approval-threshold:60}") BigDecimal approvalThreshold) {
+        this.creditScoreWeight = creditScoreWeight;
+        this.debtRatioWeight = debtRatioWeight;
+        this.collateralWeight = collateralWeight;
+        this.fraudWeight = fraudWeight;
+        this.approvalThreshold = approvalThreshold;
+    }
+
+    public Score score(ScoringInputs inputs) {
+        return combine(inputs, creditComponent(inputs), debtRatioComponent(inputs), collateralComponent(inputs), fraudComponent(inputs));
+    }
+
+    // The weighted components, public so challengers (see ChallengerScorer) can reuse the ones they don't change
+    public BigDecimal creditComponent(ScoringInputs inputs) {
+        // Central Bank Score (normalized, assuming 300-850 range -> 0-100)
+        // If API status is not OK (e.g. API_UNAVAILABLE), use a low score like 0 or a penalty.
+        double cbScoreValue = inputs.creditScore();
+        if (!"OK".equalsIgnoreCase(inputs.creditReportStatus()) && inputs.creditScore() <= 0) { // Assuming mock API returns "OK" on success
+            cbScoreValue = 300; // Default to lowest score if API failed or indicated an issue
+        }
+        double cbScoreNormalized = Math.max(0, Math.min(100, (cbScoreValue - 300.0) / (850.0 - 300.0) * 100.0));
+        return BigDecimal.valueOf(cbScoreNormalized).multiply(creditScoreWeight);
+    }
+
+    public BigDecimal debtRatioComponent(ScoringInputs inputs) {
+        // Debt Ratio Score (lower is better, e.g., <30 Low, 30-50 Med, >50 High -> map to score)
+        double debtRatioScoreValue;
+        if (inputs.debtRatioPercentage().doubleValue() < 30) debtRatioScoreValue = 100;
+        else if (inputs.debtRatioPercentage().doubleValue() <= 50) debtRatioScoreValue = 60;
+        else debtRatioScoreValue = 20;
+        return BigDecimal.valueOf(debtRatioScoreValue).multiply(debtRatioWeight);
+    }
+
+    public BigDecimal collateralComponent(ScoringInputs inputs) {
+        // Collateral Score (mocked): fixed score based on verification
+        return BigDecimal.valueOf(inputs.collateralValue().doubleValue() > 0 ? 80 : 30).multiply(collateralWeight);
+    }
+
+    public BigDecimal fraudComponent(ScoringInputs inputs) {
+        // Fraud Check Score (lower risk is better)
+        return BigDecimal.valueOf((1 - inputs.fraudRiskScore().doubleValue()) * 100).multiply(fraudWeight);
+    }
+
+    // Final score and decision from the four components: initial score weight, then the approval threshold
+    public Score combine(ScoringInputs inputs, BigDecimal creditComponent, BigDecimal debtRatioComponent,
+                         BigDecimal collateralComponent, BigDecimal fraudComponent) {
+        BigDecimal rawFinalScore = creditComponent.add(debtRatioComponent).add(collateralComponent).add(fraudComponent);
+        Double initialWeight = inputs.initialScoreWeight();
+        // Apply initial score weight; rounded to the scale of risk_assessments.risk_score
+        BigDecimal finalScore = rawFinalScore.multiply(BigDecimal.valueOf(initialWeight != null ? initialWeight : 1.0))
+                .setScale(2, RoundingMode.HALF_UP);
+
+        boolean approved = finalScore.compareTo(approvalThreshold) >= 0;
+        return new Score(creditComponent, debtRatioComponent, collateralComponent, fraudComponent, finalScore,
+                approved ? "APPROVED" : "REJECTED",
+                approved ? "Risk score above threshold." : "Risk score below threshold.");
+    }
+
+    public BigDecimal creditScoreWeight() {
+        return creditScoreWeight;
+    }
+
+    public BigDecimal debtRatioWeight() {
+        return debtRatioWeight;
+    }
+
+    public BigDecimal collateralWeight() {
+        return collateralWeight;
+    }
+
+    public BigDecimal fraudWeight() {
+        return fraudWeight;
+    }
+
+    public BigDecimal approvalThreshold() {
+        return approvalThreshold;
+    }
+
+    // Identifies this weight/threshold combination, e.g. in re-scoring checkpoints
+    public String version() {
+        return "cs" + creditScoreWeight.toPlainString() + "-dr" + debtRatioWeight.toPlainString()
+                + "-co" + collateralWeight.toPlainString() + "-fr" + fraudWeight.toPlainString()
+                + "-t" + approvalThreshold.toPlainString();
+    }
+
+    public record ScoringInputs(int creditScore,
+                                String creditReportStatus,
+                                BigDecimal debtRatioPercentage,
+                                BigDecimal collateralValue,
+                                BigDecimal fraudRiskScore,
+                                Double initialScoreWeight) {}
+
+    public record Score(BigDecimal creditComponent,
+                        BigDecimal debtRatioComponent,
+                        BigDecimal collateralComponent,
+                        BigDecimal fraudComponent,
+                        BigDecimal finalScore,
+                        String decision,
+                        String decisionReason) {}
+}
@@ -0,0 +1,184 @@
+package com.example.riskassessmentservice.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Consumer-side backpressure for scoring-events, driven by the health of the Central Bank API.
+// While the centralBankApi circuit is open every assessment would be scored with the fallback report
+// (credit score 0) and most likely REJECTED, so instead of consuming, the listener's partitions are paused:
+// - circuit OPEN / FORCED_OPEN, or the bulkhead rejected calls in bulkhead-rejection-ticks checks in a row:
+//   pause every assigned partition (a bulkhead with every permit in use is just full load, not a reason)
+// - HALF_OPEN: at most half-open-partitions partitions consume, feeding the breaker's probe calls
+// - CLOSED: one more partition is resumed every resume-step, so the backlog doesn't hit the API at once
+// Paused partitions keep their committed offsets, so nothing is skipped; the backlog shows up as lag.
+// The check runs on its own thread every check-interval-ms (and right after a breaker transition), so it
+// never waits behind the @Scheduled jobs sharing Spring's scheduler.
+@Component
+@Profile("!read-pod")
+public class ScoringConsumerBackpressure {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoringConsumerBackpressure.class);
+
+    public static final String LISTENER_ID = "scoringEventsListener";
+    private static final String RESILIENCE_INSTANCE = "centralBankApi";
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final boolean enabled;
+    private final int halfOpenPartitions;
+    private final Duration resumeStep;
+    private final int bulkheadRejectionTicks;
+    private final ScheduledExecutorService ticker;
+
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private int rejectingTicks; // Only touched by the ticker thread
+    private volatile boolean bulkheadOverloaded;
+    private final Timer pausedTimer;
+    private final Counter pauseCounter;
+    private long pausedSinceNanos = -1; // Guarded by this
+    private long lastResumeNanos; // Guarded by this
+    private volatile int pausedPartitions;
+
+    public ScoringConsumerBackpressure(KafkaListenerEndpointRegistry listenerRegistry,
+                                       CircuitBreakerRegistry circuitBreakerRegistry,
+                                       BulkheadRegistry bulkheadRegistry,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${risk.kafka.backpressure.enabled:true}") boolean enabled,
+                                       @Value("${risk.kafka.backpressure.half-open-partitions:1}") int halfOpenPartitions,
+                                       @Value("${risk.kafka.backpressure.resume-step:2s}") Duration resumeStep,
+                                       @Value("${risk.kafka.backpressure.check-interval-ms:500}") long checkIntervalMs,
+                                       @Value("${risk.kafka.backpressure.bulkhead-rejection-ticks:4}") int bulkheadRejectionTicks) {
+        this.listenerRegistry = listenerRegistry;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        this.enabled = enabled;
+        this.halfOpenPartitions = halfOpenPartitions;
+        this.resumeStep = resumeStep;
+        this.bulkheadRejectionTicks = bulkheadRejectionTicks;
+
+        this.pausedTimer = Timer.builder("kafka.consumer.backpressure.paused")
+            .tag("topic", "scoring-events")
+            .description("Time from pausing scoring-events consumption until every partition was resumed")
+            .register(meterRegistry);
+        this.pauseCounter = Counter.builder("kafka.consumer.backpressure.pauses")
+            .tag("topic", "scoring-events")
+            .description("Number of times scoring-events consumption was paused for Central Bank API health")
+            .register(meterRegistry);
+        Gauge.builder("kafka.consumer.backpressure.paused_partitions", this, backpressure -> backpressure.pausedPartitions)
+            .tag("topic", "scoring-events")
+            .description("scoring-events partitions currently paused")
+            .register(meterRegistry);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("scoring-backpressure").daemon(true).factory());
+        bulkhead.getEventPublisher().onCallRejected(event -> bulkheadRejections.increment());
+        // React to the breaker opening right away instead of on the next tick
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.info("Central Bank API circuit breaker {} -> {}", event.getStateTransition().getFromState(), event.getStateTransition().getToState());
+            ticker.execute(this::adjust);
+        });
+        if (enabled) {
+            ticker.scheduleWithFixedDelay(this::tick, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        try {
+            rejectingTicks = bulkheadRejections.sumThenReset() > 0 ? rejectingTicks + 1 : 0;
+            bulkheadOverloaded = rejectingTicks >= bulkheadRejectionTicks;
+            adjust();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.warn("Scoring consumer backpressure check failed: {}", e.getMessage());
+        }
+    }
+
+    void adjust() {
+        if (!enabled) {
+            return;
+        }
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        if (assigned == null || assigned.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            List<TopicPartition> paused = assigned.stream().filter(container::isPartitionPauseRequested).toList();
+            List<TopicPartition> consuming = assigned.stream().filter(tp -> !container.isPartitionPauseRequested(tp)).toList();
+            long now = System.nanoTime();
+
+            CircuitBreaker.State state = circuitBreaker.getState();
+            boolean overloaded = bulkheadOverloaded;
+            if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN || overloaded) {
+                if (!consuming.isEmpty()) {
+                    consuming.forEach(container::pausePartition);
+                    markPaused(now);
+                    log.warn("Paused {} scoring-events partitions (circuit breaker {}, bulkhead rejecting calls: {})", consuming.size(), state, overloaded);
+                }
+            } else if (state == CircuitBreaker.State.HALF_OPEN) {
+                int toResume = Math.min(paused.size(), Math.max(0, halfOpenPartitions - consuming.size()));
+                if (toResume > 0) {
+                    paused.subList(0, toResume).forEach(container::resumePartition);
+                    lastResumeNanos = now;
+                    log.info("Circuit breaker half-open, resumed {} scoring-events partition(s) for probing", toResume);
+                }
+            } else if (!paused.isEmpty() && now - lastResumeNanos >= resumeStep.toNanos()) {
+                container.resumePartition(paused.get(0));
+                lastResumeNanos = now;
+                log.info("Resumed scoring-events partition {} ({} still paused)", paused.get(0), paused.size() - 1);
+                if (paused.size() == 1) {
+                    markResumed(now);
+                }
+            }
+            pausedPartitions = (int) assigned.stream().filter(container::isPartitionPauseRequested).count();
+        }
+    }
+
+    private void markPaused(long now) {
+        if (pausedSinceNanos < 0) {
+            pausedSinceNanos = now;
+            pauseCounter.increment();
+        }
+    }
+
+    private void markResumed(long now) {
+        if (pausedSinceNanos >= 0) {
+            Duration paused = Duration.ofNanos(now - pausedSinceNanos);
+            pausedTimer.record(paused);
+            log.info("All scoring-events partitions resumed after {} ms", paused.toMillis());
+            pausedSinceNanos = -1;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.riskassessmentservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Append-only NDJSON files for offline analysis of shadow scoring: one JSON object per line in
+// <directory>/shadow-scores-<yyyy-MM-dd>.ndjson (UTC days, so a day's file can be picked up once the next
+// one exists). Lines are buffered and flushed every flush-interval; records that can't be written are
+// counted and dropped, nothing here is allowed to back up into scoring.
+@Component
+@Profile("!read-pod")
+public class ShadowScoreSink {
+
+    private static final Logger log = LoggerFactory.getLogger(ShadowScoreSink.class);
+
+    private static final String FILE_PREFIX = "shadow-scores-";
+    private static final String FILE_SUFFIX = ".ndjson";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    private BufferedWriter writer; // Guarded by this
+    private LocalDate writerDay; // Guarded by this
+
+    private final Counter writtenCounter;
+    private final Counter errorCounter;
+
+    public ShadowScoreSink(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${risk.shadow.sink.directory:shadow-scores}") String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+
+        this.writtenCounter = Counter.builder("scoring.shadow.sink.records")
+            .tag("status", "success")
+            .description("Shadow scoring records appended to the NDJSON sink")
+            .register(meterRegistry);
+        this.errorCounter = Counter.builder("scoring.shadow.sink.records")
+            .tag("status", "error")
+            .description("Shadow scoring records dropped because they could not be written")
+            .register(meterRegistry);
+    }
+
+    public void append(Object record) {
+        String line;
+        try {
+            line = objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            errorCounter.increment();
+            log.warn("Failed to serialize shadow scoring record: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            try {
+                writer().write(line);
+                writer.newLine();
+                writtenCounter.increment();
+            } catch (IOException e) {
+                errorCounter.increment();
+                log.warn("Failed to append to the shadow scoring sink in {}: {}", directory, e.getMessage());
+                closeWriter();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${risk.shadow.sink.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Failed to flush the shadow scoring sink in {}: {}", directory, e.getMessage());
+            closeWriter();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        flush();
+        closeWriter();
+    }
+
+    // Caller holds this; rolls over to a new file at midnight UTC
+    private BufferedWriter writer() throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (writer != null && today.equals(writerDay)) {
+            return writer;
+        }
+        if (writer != null) {
+            writer.flush();
+            closeWriter();
+        }
+        Files.createDirectories(directory);
+        writer = Files.newBufferedWriter(directory.resolve(FILE_PREFIX + today + FILE_SUFFIX), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        writerDay = today;
+        return writer;
+    }
+
+    // Caller holds this
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the shadow scoring sink: {}", e.getMessage());
+        }
+        writer = null;
+        writerDay = null;
+    }
+}
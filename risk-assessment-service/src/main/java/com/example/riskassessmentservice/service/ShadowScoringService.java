@@ -0,0 +1,160 @@
+package com.example.riskassessmentservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Champion/challenger shadow scoring: after the champion (RiskScoringPolicy) has scored an assessment, the
+// same factor values are handed to the challengers in risk.shadow.challengers on a small dedicated pool.
+// submit() only enqueues; when the bounded queue is full the work is dropped (and counted), so challengers
+// never delay or fail a live decision. Per challenger, decision agreement and the score delta are recorded
+// as metrics and every comparison is appended to the NDJSON sink (ShadowScoreSink) for offline analysis.
+@Service
+@Profile("!read-pod")
+public class ShadowScoringService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShadowScoringService.class);
+
+    // One line of the NDJSON sink
+    public record ShadowScore(Instant timestamp, UUID applicationId, String challenger,
+                              BigDecimal championScore, String championDecision,
+                              BigDecimal challengerScore, String challengerDecision,
+                              boolean agree, BigDecimal scoreDelta, long challengerMicros,
+                              RiskScoringPolicy.ScoringInputs inputs) {}
+
+    private final List<Challenger> challengers = new ArrayList<>();
+    private final ShadowScoreSink sink;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter droppedCounter;
+
+    public ShadowScoringService(List<ChallengerScorer> availableScorers,
+                                ShadowScoreSink sink,
+                                MeterRegistry meterRegistry,
+                                @Value("${risk.shadow.enabled:false}") boolean enabled,
+                                @Value("${risk.shadow.challengers:}") List<String> challengerNames,
+                                @Value("${risk.shadow.threads:1}") int threads,
+                                @Value("${risk.shadow.queue-capacity:1000}") int queueCapacity) {
+        this.sink = sink;
+
+        if (enabled) {
+            Map<String, ChallengerScorer> byName = new HashMap<>();
+            availableScorers.forEach(scorer -> byName.put(scorer.name(), scorer));
+            for (String name : challengerNames) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                ChallengerScorer scorer = byName.get(name.trim());
+                if (scorer == null) {
+                    throw new IllegalArgumentException("Unknown challenger '" + name.trim() + "' in risk.shadow.challengers, expected one of " + byName.keySet());
+                }
+                challengers.add(new Challenger(scorer, meterRegistry));
+            }
+        }
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("shadow-scoring-", 0).daemon(true).factory());
+        this.droppedCounter = Counter.builder("scoring.shadow.dropped")
+            .description("Shadow scoring runs dropped because the shadow queue was full")
+            .register(meterRegistry);
+        Gauge.builder("scoring.shadow.queue_size", executor, pool -> pool.getQueue().size())
+            .description("Shadow scoring runs waiting for a shadow thread")
+            .register(meterRegistry);
+
+        if (challengers.isEmpty()) {
+            log.info("Shadow scoring disabled (risk.shadow.enabled / risk.shadow.challengers)");
+        } else {
+            log.info("Shadow scoring with challengers {} on {} thread(s), queue capacity {}",
+                    challengers.stream().map(challenger -> challenger.scorer.name()).toList(), threads, queueCapacity);
+        }
+    }
+
+    // Never blocks and never throws
+    public void submit(UUID applicationId, RiskScoringPolicy.ScoringInputs inputs, RiskScoringPolicy.Score champion) {
+        if (challengers.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> scoreChallengers(applicationId, inputs, champion));
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void scoreChallengers(UUID applicationId, RiskScoringPolicy.ScoringInputs inputs, RiskScoringPolicy.Score champion) {
+        for (Challenger challenger : challengers) {
+            try {
+                long start = System.nanoTime();
+                RiskScoringPolicy.Score score = challenger.scorer.score(inputs);
+                long micros = (System.nanoTime() - start) / 1_000;
+
+                boolean agree = champion.decision().equals(score.decision());
+                BigDecimal delta = score.finalScore().subtract(champion.finalScore());
+                (agree ? challenger.agreeCounter : challenger.disagreeCounter).increment();
+                challenger.deltaSummary.record(delta.abs().doubleValue());
+                sink.append(new ShadowScore(Instant.now(), applicationId, challenger.scorer.name(),
+                        champion.finalScore(), champion.decision(), score.finalScore(), score.decision(),
+                        agree, delta, micros, inputs));
+            } catch (RuntimeException e) {
+                challenger.errorCounter.increment();
+                log.warn("Challenger {} failed for application ID {}: {}", challenger.scorer.name(), applicationId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Challenger {
+
+        final ChallengerScorer scorer;
+        final Counter agreeCounter;
+        final Counter disagreeCounter;
+        final Counter errorCounter;
+        final DistributionSummary deltaSummary;
+
+        Challenger(ChallengerScorer scorer, MeterRegistry meterRegistry) {
+            this.scorer = scorer;
+            this.agreeCounter = Counter.builder("scoring.shadow.decisions")
+                .tag("challenger", scorer.name())
+                .tag("agreement", "agree")
+                .description("Shadow-scored assessments where the challenger reached the champion's decision")
+                .register(meterRegistry);
+            this.disagreeCounter = Counter.builder("scoring.shadow.decisions")
+                .tag("challenger", scorer.name())
+                .tag("agreement", "disagree")
+                .description("Shadow-scored assessments where the challenger's decision differs from the champion's")
+                .register(meterRegistry);
+            this.errorCounter = Counter.builder("scoring.shadow.errors")
+                .tag("challenger", scorer.name())
+                .description("Challenger scoring runs that threw")
+                .register(meterRegistry);
+            this.deltaSummary = DistributionSummary.builder("scoring.shadow.score_delta")
+                .tag("challenger", scorer.name())
+                .description("Absolute difference between the challenger's and the champion's final score")
+                .register(meterRegistry);
+        }
+    }
+}
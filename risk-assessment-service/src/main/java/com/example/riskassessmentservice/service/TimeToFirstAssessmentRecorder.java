@@ -0,0 +1,60 @@
+package com.example.riskassessmentservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+// Time from process start to the first completed assessment, tagged with the build variant
+// (jvm, jvm-cds, aot, aot-cds, native) so scale-out latency can be compared across startup modes.
+// Complements Spring Boot's application.ready.time, which stops before any traffic is served.
+@Component
+public class TimeToFirstAssessmentRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeToFirstAssessmentRecorder.class);
+
+    private final String variant = detectVariant();
+    private final AtomicLong timeToFirstAssessmentNanos = new AtomicLong(-1);
+
+    public TimeToFirstAssessmentRecorder(MeterRegistry meterRegistry) {
+        TimeGauge.builder("startup.time_to_first_assessment", timeToFirstAssessmentNanos, TimeUnit.NANOSECONDS,
+                        nanos -> nanos.get() < 0 ? Double.NaN : nanos.get())
+            .tag("variant", variant)
+            .description("Time from process start until the first risk assessment completed")
+            .register(meterRegistry);
+    }
+
+    public void assessmentCompleted() {
+        if (timeToFirstAssessmentNanos.get() >= 0) {
+            return;
+        }
+        Instant processStart = ProcessHandle.current().info().startInstant().orElse(null);
+        if (processStart == null) {
+            return;
+        }
+        long nanos = Duration.between(processStart, Instant.now()).toNanos();
+        if (timeToFirstAssessmentNanos.compareAndSet(-1, nanos)) {
+            log.info("First risk assessment completed {} ms after process start (variant: {})", TimeUnit.NANOSECONDS.toMillis(nanos), variant);
+        }
+    }
+
+    private static String detectVariant() {
+        if (NativeDetector.inNativeImage()) {
+            return "native";
+        }
+        boolean cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+            .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+        String base = AotDetector.useGeneratedArtifacts() ? "aot" : "jvm";
+        return cds ? base + "-cds" : base;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.riskassessmentservice.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Count-min sketch of depth rows x width counters. estimate() never under-counts; with probability
+// 1 - e^-depth it over-counts by at most e / width of everything added. Thread-safe and lock-free:
+// every counter is an atomic int. Sketches of the same shape merge by adding their counters.
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicIntegerArray counters;
+    private final LongAdder total = new LongAdder();
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicIntegerArray(depth * width);
+    }
+
+    public void add(long hash, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters.getAndAdd(index(row, hash), count);
+        }
+        total.add(count);
+    }
+
+    public long estimate(long hash) {
+        return estimate(hash, null);
+    }
+
+    // Estimate over this sketch and another one of the same shape, as if they had been merged
+    public long estimate(long hash, CountMinSketch other) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, hash);
+            long count = Integer.toUnsignedLong(counters.get(index)) + (other != null ? Integer.toUnsignedLong(other.counters.get(index)) : 0);
+            min = Math.min(min, count);
+        }
+        return min;
+    }
+
+    public void merge(CountMinSketch other) {
+        requireSameShape(other);
+        for (int i = 0; i < counters.length(); i++) {
+            int value = other.counters.get(i);
+            if (value != 0) {
+                counters.getAndAdd(i, value);
+            }
+        }
+        total.add(other.total());
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    // Upper bound of the over-count of estimate() relative to total(), holding with probability confidence()
+    public double relativeError() {
+        return Math.E / width;
+    }
+
+    public double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + 4 * counters.length());
+        buffer.putInt(depth).putInt(width).putLong(total());
+        for (int i = 0; i < counters.length(); i++) {
+            buffer.putInt(counters.get(i));
+        }
+        return buffer.array();
+    }
+
+    public static CountMinSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CountMinSketch sketch = new CountMinSketch(buffer.getInt(), buffer.getInt());
+        sketch.total.add(buffer.getLong());
+        for (int i = 0; i < sketch.counters.length(); i++) {
+            sketch.counters.set(i, buffer.getInt());
+        }
+        return sketch;
+    }
+
+    private void requireSameShape(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge a " + other.depth + "x" + other.width + " sketch into a " + depth + "x" + width + " one");
+        }
+    }
+
+    // Kirsch-Mitzenmacher double hashing: row i uses h1 + i * h2
+    private int index(int row, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return row * width + Math.floorMod(h1 + row * h2, width);
+    }
+}
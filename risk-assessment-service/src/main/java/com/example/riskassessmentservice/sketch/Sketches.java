@@ -0,0 +1,32 @@
+package com.example.riskassessmentservice.sketch;
+
+import java.nio.charset.StandardCharsets;
+
+// Shared 64-bit hashing for the sketches: FNV-1a over the UTF-8 bytes, finished with MurmurHash3's fmix64
+// so that every output bit depends on every input bit (HyperLogLog reads the top bits, CountMinSketch both halves).
+public final class Sketches {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Sketches() {
+    }
+
+    public static long hash64(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return fmix64(hash);
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.riskassessmentservice.benchmark;
+
+import com.example.riskassessmentservice.service.FraudVelocityEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of FraudVelocityEngine.assess on the scoring path (record + score of customer and fingerprint).
+// "customers" spreads the load over that many keys; with more customers than max-tracked-keys the run
+// includes Caffeine evictions. "hotCustomers" sends every call to 8 keys to measure CAS contention.
+// Run with: mvn -Pbenchmark -DskipTests verify -Dbenchmark.include=FraudVelocityEngineBenchmark
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FraudVelocityEngineBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int customers;
+
+    @Param({"200000"})
+    public long maxTrackedKeys;
+
+    private FraudVelocityEngine engine;
+    private String[] customerIds;
+    private BigDecimal[] amounts;
+    private final BigDecimal income = BigDecimal.valueOf(5000);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new FraudVelocityEngine(null, new SimpleMeterRegistry(), maxTrackedKeys, 1, 3, 5, 250_000, 3, 10, false, Duration.ofMillis(50));
+        customerIds = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = "cust-" + i;
+        }
+        amounts = new BigDecimal[64];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = BigDecimal.valueOf(5_000L + 1_000L * i);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object assess() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return engine.assess(customerIds[random.nextInt(customers)], amounts[random.nextInt(amounts.length)], income, true);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object hotCustomers() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return engine.assess(customerIds[random.nextInt(8)], amounts[random.nextInt(amounts.length)], income, true);
+    }
+}
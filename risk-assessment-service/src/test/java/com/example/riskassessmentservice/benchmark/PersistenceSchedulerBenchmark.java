@@ -0,0 +1,148 @@
+package com.example.riskassessmentservice.benchmark;
+
+import com.example.riskassessmentservice.config.SchedulerConfig;
+import com.example.riskassessmentservice.service.RiskScoringPolicy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Compares the persistence scheduler modes under a burst of concurrent assessments. Each assessment does
+// a blocking read, the scoring (CPU, inline) and a blocking write, with the JDBC round trips simulated by
+// sleeping. Reports p50/p99 of a burst (SampleTime), plus context switches and platform threads started
+// per burst (ResourceCounters). Run with: mvn -Pbenchmark -DskipTests verify -Dbenchmark.include=PersistenceSchedulerBenchmark
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PersistenceSchedulerBenchmark {
+
+    @Param({SchedulerConfig.BOUNDED_ELASTIC, SchedulerConfig.VIRTUAL_THREADS})
+    public String mode;
+
+    // In-flight assessments per burst
+    @Param({"500"})
+    public int concurrency;
+
+    // Simulated JDBC round trip
+    @Param({"5"})
+    public int blockingMillis;
+
+    private Scheduler scheduler;
+    private final RiskScoringPolicy scoringPolicy = new RiskScoringPolicy(
+            BigDecimal.valueOf(0.35), BigDecimal.valueOf(0.30), BigDecimal.valueOf(0.20), BigDecimal.valueOf(0.15), BigDecimal.valueOf(60));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = SchedulerConfig.createPersistenceScheduler(mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.printf("%n[%s] peak live platform threads: %d%n", mode, threads.getPeakThreadCount());
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Object burstLatency() {
+        return burst();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public Object burstResources(ResourceCounters counters) {
+        return burst();
+    }
+
+    private Object burst() {
+        return Flux.range(0, concurrency)
+            .flatMap(i -> Mono.fromCallable(this::blockingCall).subscribeOn(scheduler)
+                .map(ignored -> scoringPolicy.score(new RiskScoringPolicy.ScoringInputs(
+                        600 + i % 250, "OK", BigDecimal.valueOf(i % 70), BigDecimal.valueOf(8000), BigDecimal.valueOf(0.05), 1.0)))
+                .flatMap(score -> Mono.fromCallable(this::blockingCall).subscribeOn(scheduler).thenReturn(score)), concurrency)
+            .blockLast();
+    }
+
+    private Boolean blockingCall() throws InterruptedException {
+        Thread.sleep(blockingMillis);
+        return Boolean.TRUE;
+    }
+
+    // Deltas per burst, sampled outside the measured region. Context switches are summed over all
+    // threads of the JVM (Linux only; 0 elsewhere).
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResourceCounters {
+        public long contextSwitches;
+        public long platformThreadsStarted;
+
+        private long switchesBefore;
+        private long threadsBefore;
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            contextSwitches = 0;
+            platformThreadsStarted = 0;
+        }
+
+        @Setup(Level.Invocation)
+        public void before() {
+            switchesBefore = processContextSwitches();
+            threadsBefore = threads.getTotalStartedThreadCount();
+        }
+
+        @TearDown(Level.Invocation)
+        public void after() {
+            contextSwitches += processContextSwitches() - switchesBefore;
+            platformThreadsStarted += threads.getTotalStartedThreadCount() - threadsBefore;
+        }
+
+        private static long processContextSwitches() {
+            Path tasks = Path.of("/proc/self/task");
+            if (!Files.isDirectory(tasks)) {
+                return 0;
+            }
+            try (Stream<Path> taskDirs = Files.list(tasks)) {
+                return taskDirs.mapToLong(ResourceCounters::taskContextSwitches).sum();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        private static long taskContextSwitches(Path taskDir) {
+            try (Stream<String> lines = Files.lines(taskDir.resolve("status"))) {
+                return lines.filter(line -> line.startsWith("voluntary_ctxt_switches") || line.startsWith("nonvoluntary_ctxt_switches"))
+                    .mapToLong(line -> Long.parseLong(line.substring(line.indexOf(':') + 1).trim()))
+                    .sum();
+            } catch (IOException | RuntimeException e) {
+                return 0; // The thread exited while we were reading
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.riskassessmentservice.client;
+
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralApiException;
+import com.example.riskassessmentservice.client.CentralBankApiClient.CentralBankCreditResponse;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CreditCheckBatcherTest {
+
+    private final AtomicInteger bulkRequests = new AtomicInteger();
+    // The mock answers a, b and d; b is reported as an error and c is missing from the response
+    private final WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                bulkRequests.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("""
+                                {"results": [
+                                  {"customerId": "a", "status": "OK", "creditScore": 720, "outstandingLoans": 1, "paymentHistory": "GOOD"},
+                                  {"customerId": "b", "status": "ERROR", "error": "Customer b not found"},
+                                  {"customerId": "d", "status": "OK", "creditScore": 650, "outstandingLoans": 0, "paymentHistory": "FAIR"}
+                                ]}""")
+                        .build());
+            })
+            .build();
+
+    @Test
+    void fullBatch_isSentWithoutWaitingForTheTimer() {
+        CreditCheckBatcher batcher = batcher(BulkheadRegistry.ofDefaults(), 2, Duration.ofHours(1));
+
+        CompletableFuture<CentralBankCreditResponse> first = batcher.fetch("a").toFuture();
+        assertFalse(first.isDone());
+        CompletableFuture<CentralBankCreditResponse> second = batcher.fetch("d").toFuture();
+
+        assertEquals(720, first.join().creditScore());
+        assertEquals(650, second.join().creditScore());
+        assertEquals(1, bulkRequests.get());
+    }
+
+    @Test
+    void partialBatch_isSentAfterMaxWait() {
+        CreditCheckBatcher batcher = batcher(BulkheadRegistry.ofDefaults(), 50, Duration.ofMillis(20));
+
+        CentralBankCreditResponse report = batcher.fetch("a").block(Duration.ofSeconds(5));
+
+        assertEquals(720, report.creditScore());
+        assertEquals(1, bulkRequests.get());
+    }
+
+    @Test
+    void perItemFailures_failOnlyTheirOwnLookups() {
+        CreditCheckBatcher batcher = batcher(BulkheadRegistry.ofDefaults(), 3, Duration.ofHours(1));
+
+        CompletableFuture<CentralBankCreditResponse> ok = batcher.fetch("a").toFuture();
+        CompletableFuture<CentralBankCreditResponse> failed = batcher.fetch("b").toFuture();
+        CompletableFuture<CentralBankCreditResponse> missing = batcher.fetch("c").toFuture();
+
+        assertEquals(720, ok.join().creditScore());
+        assertEquals("Customer b not found", cause(failed).getMessage());
+        assertInstanceOf(CentralApiException.class, cause(missing));
+        assertEquals(1, bulkRequests.get());
+    }
+
+    @Test
+    void batch_holdsOneBulkheadPermit() {
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build());
+        CreditCheckBatcher batcher = batcher(bulkheads, 2, Duration.ofHours(1));
+
+        CompletableFuture<CentralBankCreditResponse> first = batcher.fetch("a").toFuture();
+        CompletableFuture<CentralBankCreditResponse> second = batcher.fetch("d").toFuture();
+        assertEquals(720, first.join().creditScore());
+        assertEquals(650, second.join().creditScore());
+
+        // With the only permit taken the whole batch is rejected without a request
+        assertTrue(bulkheads.bulkhead("centralBankApi").tryAcquirePermission());
+        CompletableFuture<CentralBankCreditResponse> rejected = batcher.fetch("a").toFuture();
+        CompletableFuture<CentralBankCreditResponse> alsoRejected = batcher.fetch("d").toFuture();
+        assertInstanceOf(BulkheadFullException.class, cause(rejected));
+        assertInstanceOf(BulkheadFullException.class, cause(alsoRejected));
+        assertEquals(1, bulkRequests.get());
+    }
+
+    private CreditCheckBatcher batcher(BulkheadRegistry bulkheads, int maxBatchSize, Duration maxWait) {
+        return new CreditCheckBatcher(webClient, bulkheads, new SimpleMeterRegistry(), maxBatchSize, maxWait);
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        return e.getCause();
+    }
+}
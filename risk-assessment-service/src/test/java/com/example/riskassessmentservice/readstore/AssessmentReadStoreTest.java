@@ -0,0 +1,80 @@
+package com.example.riskassessmentservice.readstore;
+
+import com.example.riskassessmentservice.model.RiskAssessment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssessmentReadStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void latestAssessmentPerApplication_isServed() {
+        AssessmentReadStore store = open();
+        UUID applicationId = UUID.randomUUID();
+
+        store.apply(0, 10, applicationId.toString(), assessment(applicationId, "REJECTED"));
+        store.apply(0, 11, applicationId.toString(), assessment(applicationId, "APPROVED"));
+
+        assertEquals("APPROVED", store.find(applicationId).block().getDecision());
+        assertNull(store.find(UUID.randomUUID()).block());
+        store.close();
+    }
+
+    @Test
+    void tombstone_removesTheApplication() {
+        AssessmentReadStore store = open();
+        UUID applicationId = UUID.randomUUID();
+
+        store.apply(1, 0, applicationId.toString(), assessment(applicationId, "APPROVED"));
+        store.apply(1, 1, applicationId.toString(), null);
+
+        assertNull(store.find(applicationId).block());
+        assertEquals(2L, store.nextOffset(1));
+        store.close();
+    }
+
+    @Test
+    void snapshot_survivesARestart_withItsOffsets() {
+        AssessmentReadStore store = open();
+        assertFalse(store.isRestoredFromSnapshot());
+        UUID applicationId = UUID.randomUUID();
+        store.apply(2, 41, applicationId.toString(), assessment(applicationId, "APPROVED"));
+        store.skip(0, 7);
+        store.close();
+
+        AssessmentReadStore restarted = open();
+
+        assertTrue(restarted.isRestoredFromSnapshot());
+        assertEquals(new BigDecimal("72.50"), restarted.find(applicationId).block().getRiskScore());
+        assertEquals(42L, restarted.nextOffset(2));
+        assertEquals(8L, restarted.nextOffset(0));
+        assertNull(restarted.nextOffset(1));
+        restarted.close();
+    }
+
+    private AssessmentReadStore open() {
+        return new AssessmentReadStore(new SimpleMeterRegistry(), Schedulers.immediate(), true, tempDir.resolve("read-store/assessments.mv.db").toString());
+    }
+
+    private static RiskAssessment assessment(UUID applicationId, String decision) {
+        RiskAssessment assessment = new RiskAssessment();
+        assessment.setApplicationId(applicationId);
+        assessment.setCustomerId("c1");
+        assessment.setRiskScore(new BigDecimal("72.50"));
+        assessment.setDecision(decision);
+        return assessment;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.collateral.CollateralTable;
+import com.example.riskassessmentservice.collateral.CollateralTableWriter;
+import com.example.riskassessmentservice.collateral.CollateralTableWriter.Row;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollateralValuationEngineTest {
+
+    private static final String ANY = CollateralTable.WILDCARD;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void withoutTable_usesFlatEightyPercent() {
+        CollateralValuationEngine engine = new CollateralValuationEngine(new SimpleMeterRegistry(), "");
+
+        assertEquals(0, new BigDecimal("8000").compareTo(engine.valuate(BigDecimal.valueOf(10_000), "HOME", ANY, ANY).verifiedValue()));
+    }
+
+    @Test
+    void mostSpecificRowWins() throws IOException {
+        Path table = dir.resolve("collateral.bin");
+        CollateralTableWriter.write(table, 1, List.of(
+                new Row(ANY, ANY, ANY, 1.0f, 0.5f),
+                new Row("HOME", ANY, ANY, 0.8f, 0.2f),
+                new Row("HOME", "EU-WEST", "APARTMENT", 0.5f, 0.0f)));
+        CollateralValuationEngine engine = new CollateralValuationEngine(new SimpleMeterRegistry(), table.toString());
+
+        // 10000 / 0.5 * (1 - 0)
+        assertEquals(new BigDecimal("20000.00"), engine.valuate(BigDecimal.valueOf(10_000), "home", "EU-WEST", "APARTMENT").verifiedValue());
+        // Purpose row: 10000 / 0.8 * (1 - 0.2)
+        assertEquals(new BigDecimal("10000.00"), engine.valuate(BigDecimal.valueOf(10_000), "HOME", "US-EAST", ANY).verifiedValue());
+        // Global row: 10000 / 1.0 * (1 - 0.5)
+        assertEquals(new BigDecimal("5000.00"), engine.valuate(BigDecimal.valueOf(10_000), "CAR", ANY, ANY).verifiedValue());
+    }
+
+    @Test
+    void newVersionIsSwappedIn_andInvalidFilesAreRejected() throws IOException {
+        Path table = dir.resolve("collateral.bin");
+        CollateralTableWriter.write(table, 1, List.of(new Row(ANY, ANY, ANY, 1.0f, 0.5f)));
+        CollateralValuationEngine engine = new CollateralValuationEngine(new SimpleMeterRegistry(), table.toString());
+
+        CollateralTableWriter.write(table, 2, List.of(new Row(ANY, ANY, ANY, 1.0f, 0.25f)));
+        engine.reloadIfChanged();
+        CollateralValuationEngine.CollateralValuation v2 = engine.valuate(BigDecimal.valueOf(10_000), "CAR", ANY, ANY);
+        assertEquals(new BigDecimal("7500.00"), v2.verifiedValue());
+        assertTrue(v2.details().contains("table v2"));
+
+        Path garbage = dir.resolve("garbage.bin");
+        Files.write(garbage, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25});
+        Files.move(garbage, table, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        engine.reloadIfChanged();
+        assertTrue(engine.valuate(BigDecimal.valueOf(10_000), "CAR", ANY, ANY).details().contains("table v2"));
+    }
+}
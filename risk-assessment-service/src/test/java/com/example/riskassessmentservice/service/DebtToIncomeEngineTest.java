@@ -0,0 +1,119 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.dto.DecisionEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DebtToIncomeEngineTest {
+
+    private static final BigDecimal INCOME = BigDecimal.valueOf(5_000);
+    private static final BigDecimal LOAN = BigDecimal.valueOf(10_000);
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private ReactiveHashOperations<String, String, String> hashOps;
+    private DebtToIncomeEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        hashOps = mock(ReactiveHashOperations.class);
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOps);
+        when(hashOps.put(anyString(), anyString(), anyString())).thenReturn(Mono.just(true));
+        when(hashOps.remove(anyString(), anyString())).thenReturn(Mono.just(1L));
+        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        // 60 months at 8%: 10000 -> 202.76 per month
+        engine = new DebtToIncomeEngine(redisTemplate, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(1), 60, 0.08, new BigDecimal("0.3"));
+    }
+
+    @Test
+    void monthlyPayment_isAnAnnuity() {
+        assertEquals(new BigDecimal("202.76"), engine.monthlyPayment(LOAN));
+    }
+
+    @Test
+    void approvedLoans_addToTheObligations_andAreCachedLocally() {
+        when(hashOps.entries("customer_obligations:c1")).thenReturn(Flux.empty());
+        UUID approved = UUID.randomUUID();
+
+        assertEquals(new BigDecimal("4.0600"), assess(UUID.randomUUID(), "c1"));
+        engine.applyDecision(decision(approved, "c1", "APPROVED"));
+
+        // 202.76 existing + 202.76 new over 5000
+        assertEquals(new BigDecimal("8.1100"), assess(UUID.randomUUID(), "c1"));
+        // Reassessing the approved application doesn't count its own loan twice
+        assertEquals(new BigDecimal("4.0600"), assess(approved, "c1"));
+        verify(hashOps, times(1)).entries("customer_obligations:c1");
+        verify(hashOps).put(eq("customer_obligations:c1"), eq(approved.toString()), startsWith("202.76;"));
+        // The hash lives until the approved loan has ended
+        verify(redisTemplate).expire("customer_obligations:c1", ChronoUnit.MONTHS.getDuration().multipliedBy(60));
+    }
+
+    @Test
+    void rejectedDecision_removesTheApplication() {
+        UUID application = UUID.randomUUID();
+        when(hashOps.entries("customer_obligations:c1")).thenReturn(Flux.just(Map.entry(application.toString(), "202.76")));
+
+        assertEquals(new BigDecimal("8.1100"), assess(UUID.randomUUID(), "c1"));
+        engine.applyDecision(decision(application, "c1", "REJECTED"));
+
+        assertEquals(new BigDecimal("4.0600"), assess(UUID.randomUUID(), "c1"));
+        verify(hashOps).remove("customer_obligations:c1", application.toString());
+    }
+
+    @Test
+    void redisUnavailable_fallsBackToTheFlatShareOfIncome() {
+        when(hashOps.entries("customer_obligations:c1")).thenReturn(Flux.error(new IllegalStateException("connection refused")));
+
+        // 1500 (30% of income) + 202.76 over 5000
+        assertEquals(new BigDecimal("34.0600"), assess(UUID.randomUUID(), "c1"));
+    }
+
+    @Test
+    void endedLoans_areLeftOut_andRemoved() {
+        UUID active = UUID.randomUUID();
+        UUID ended = UUID.randomUUID();
+        when(hashOps.entries("customer_obligations:c1")).thenReturn(Flux.just(
+                Map.entry(active.toString(), "202.76;" + (System.currentTimeMillis() + 60_000)),
+                Map.entry(ended.toString(), "202.76;" + (System.currentTimeMillis() - 60_000))));
+
+        assertEquals(new BigDecimal("8.1100"), assess(UUID.randomUUID(), "c1"));
+        verify(hashOps).remove("customer_obligations:c1", ended.toString());
+    }
+
+    @Test
+    void dryRun_assumesNoObligations_withoutReadingRedis() {
+        assertEquals(new BigDecimal("4.0600"), engine.assessWithoutObligations(INCOME, LOAN).debtRatioPercentage());
+        verify(hashOps, never()).entries(anyString());
+    }
+
+    private BigDecimal assess(UUID applicationId, String customerId) {
+        return engine.assess(applicationId, customerId, INCOME, LOAN).block().debtRatioPercentage();
+    }
+
+    private static DecisionEvent decision(UUID applicationId, String customerId, String decision) {
+        return new DecisionEvent(applicationId, UUID.randomUUID(), decision, "", BigDecimal.ZERO, customerId, LOAN);
+    }
+}
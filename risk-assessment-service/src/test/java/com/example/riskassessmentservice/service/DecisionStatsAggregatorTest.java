@@ -0,0 +1,111 @@
+package com.example.riskassessmentservice.service;
+
+import com.example.riskassessmentservice.dto.DecisionStatsBucket;
+import com.example.riskassessmentservice.dto.DecisionStatsSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DecisionStatsAggregatorTest {
+
+    private static final long HOUR_MS = Duration.ofHours(1).toMillis();
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveHashOperations<String, String, String> hashOps;
+
+    private DecisionStatsAggregator aggregator;
+
+    private final long currentHour = System.currentTimeMillis() / HOUR_MS;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new DecisionStatsAggregator(redisTemplate, new SimpleMeterRegistry(), 24);
+
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOps);
+        lenient().when(hashOps.increment(anyString(), anyString(), anyLong())).thenReturn(Mono.just(1L));
+        lenient().when(hashOps.increment(anyString(), anyString(), anyDouble())).thenReturn(Mono.just(1.0));
+        lenient().when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        lenient().when(hashOps.entries(anyString())).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void localSnapshot_aggregatesPerPurposeAndOverall() {
+        long now = currentHour * HOUR_MS + 1000;
+        aggregator.record("HOME", "APPROVED", BigDecimal.valueOf(80), 100, now);
+        aggregator.record("HOME", "REJECTED", BigDecimal.valueOf(40), 300, now);
+        aggregator.record("CAR", "APPROVED", BigDecimal.valueOf(70), 200, now);
+
+        aggregator.refresh(currentHour);
+        DecisionStatsSnapshot snapshot = aggregator.snapshot("local");
+
+        DecisionStatsBucket home = bucket(snapshot, "HOME");
+        assertEquals(2, home.assessments());
+        assertEquals(0.5, home.approvalRate(), 1e-9);
+        assertEquals(60.0, home.averageRiskScore(), 1e-9);
+        assertEquals(200.0, home.meanProcessingTimeMs(), 1e-9);
+
+        DecisionStatsBucket all = bucket(snapshot, DecisionStatsAggregator.ALL_PURPOSES);
+        assertEquals(3, all.assessments());
+        assertEquals(2, all.approved());
+    }
+
+    @Test
+    void clusterSnapshot_isMergedFromRedisHashes() {
+        when(hashOps.entries("decision_stats:" + currentHour)).thenReturn(Flux.just(
+                Map.entry("count|HOME", "4"),
+                Map.entry("approved|HOME", "3"),
+                Map.entry("riskScoreSum|HOME", "280.0"),
+                Map.entry("processingMsSum|HOME", "800")));
+
+        aggregator.refresh(currentHour);
+        DecisionStatsBucket home = bucket(aggregator.snapshot("cluster"), "HOME");
+
+        assertEquals("cluster", aggregator.snapshot("cluster").scope());
+        assertEquals(4, home.assessments());
+        assertEquals(0.75, home.approvalRate(), 1e-9);
+        assertEquals(70.0, home.averageRiskScore(), 1e-9);
+        assertEquals(200.0, home.meanProcessingTimeMs(), 1e-9);
+    }
+
+    @Test
+    void pendingDeltas_arePushedWithHincrby() {
+        aggregator.record("HOME", "APPROVED", BigDecimal.valueOf(80), 100, currentHour * HOUR_MS);
+
+        aggregator.refresh(currentHour);
+
+        verify(hashOps).increment(eq("decision_stats:" + currentHour), eq("count|HOME"), eq(1L));
+        verify(hashOps).increment(eq("decision_stats:" + currentHour), eq("approved|HOME"), eq(1L));
+    }
+
+    private static DecisionStatsBucket bucket(DecisionStatsSnapshot snapshot, String purpose) {
+        return snapshot.buckets().stream()
+                .filter(b -> b.loanPurpose().equals(purpose))
+                .findFirst()
+                .orElseThrow();
+    }
+}
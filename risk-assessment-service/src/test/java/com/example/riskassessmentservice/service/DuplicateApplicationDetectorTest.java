@@ -0,0 +1,73 @@
+package com.example.riskassessmentservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateApplicationDetectorTest {
+
+    private static final long DAY_MS = Duration.ofHours(24).toMillis();
+    private static final long NOW = 20_000 * DAY_MS + 1000;
+
+    private DuplicateApplicationDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        // 4 x 65536 count-min, amount buckets of 1000, flagged from the 3rd similar application, no Redis
+        detector = new DuplicateApplicationDetector(null, new SimpleMeterRegistry(), 4, 65536, 12,
+                BigDecimal.valueOf(1000), 3, Duration.ofHours(24), false);
+    }
+
+    @Test
+    void nearIdenticalApplications_areFlaggedFromTheThreshold() {
+        assertFalse(check("c1", 10_100, "HOME", NOW).flagged());
+        assertFalse(check("c1", 10_400, "HOME", NOW).flagged());
+        DuplicateApplicationDetector.DuplicateCheck third = check("c1", 10_900, "HOME", NOW);
+
+        assertTrue(third.flagged());
+        assertEquals(3, third.similarApplications());
+    }
+
+    @Test
+    void differentPurposeOrAmountBucket_isNotSimilar() {
+        check("c1", 10_100, "HOME", NOW);
+        check("c1", 10_100, "CAR", NOW);
+
+        assertEquals(1, check("c1", 25_000, "HOME", NOW).similarApplications());
+    }
+
+    @Test
+    void previousWindowCounts_butOlderOnesDoNot() {
+        check("c1", 10_100, "HOME", NOW);
+        check("c1", 10_100, "HOME", NOW);
+
+        assertTrue(check("c1", 10_100, "HOME", NOW + DAY_MS).flagged());
+        assertEquals(1, check("c2", 10_100, "HOME", NOW + 2 * DAY_MS).similarApplications());
+    }
+
+    @Test
+    void manyDistinctCustomers_stayBelowTheThreshold() {
+        for (int i = 0; i < 50_000; i++) {
+            check("c" + i, 10_000 + i % 5000, "HOME", NOW);
+        }
+        long flagged = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (detector.check("probe" + i, BigDecimal.valueOf(10_000), "HOME", false, NOW).flagged()) {
+                flagged++;
+            }
+        }
+        // Over-count bound: e / 65536 * 50000 ~ 2 applications, so collisions alone rarely reach 3
+        assertTrue(flagged < 20, "false positives: " + flagged);
+    }
+
+    private DuplicateApplicationDetector.DuplicateCheck check(String customerId, long amount, String purpose, long now) {
+        return detector.check(customerId, BigDecimal.valueOf(amount), purpose, true, now);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.riskassessmentservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FraudVelocityEngineTest {
+
+    private static final BigDecimal BASE_RISK = new BigDecimal("0.0500");
+    private static final long START = Duration.ofDays(20000).toMillis(); // Aligned to every bucket size
+
+    private FraudVelocityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        // Limits: 1/min, 3/h, 5/day, 250000/day per customer; 3/h, 10/day per fingerprint; no Redis
+        engine = new FraudVelocityEngine(null, new SimpleMeterRegistry(), 1000, 1, 3, 5, 250_000, 3, 10, false, Duration.ofMillis(50));
+    }
+
+    @Test
+    void firstApplication_getsBaseRisk() {
+        FraudVelocityEngine.VelocityAssessment result = assess("c1", 10_000, 3_000, START);
+
+        assertEquals(BASE_RISK, result.fraudRiskScore());
+        assertEquals("No velocity anomalies", result.details());
+    }
+
+    @Test
+    void burstWithinAMinute_raisesRisk() {
+        assess("c1", 10_000, 3_000, START);
+        FraudVelocityEngine.VelocityAssessment second = assess("c1", 12_000, 3_000, START + 5_000);
+
+        // customer_minute = 2 against a limit of 1: the signal is at full weight (0.40)
+        assertEquals(new BigDecimal("0.4500"), second.fraudRiskScore());
+        assertTrue(second.details().contains("customer_minute=2"));
+    }
+
+    @Test
+    void applicationsOutsideTheWindow_areForgotten() {
+        assess("c1", 10_000, 3_000, START);
+        FraudVelocityEngine.VelocityAssessment later = assess("c1", 12_000, 3_000, START + Duration.ofMinutes(2).toMillis());
+
+        assertEquals(BASE_RISK, later.fraudRiskScore());
+    }
+
+    @Test
+    void sameApplicationFromManyCustomers_triggersFingerprintSignal() {
+        for (int i = 0; i < 3; i++) {
+            assess("c" + i, 15_000, 4_000, START + i * 60_000L);
+        }
+        FraudVelocityEngine.VelocityAssessment fourth = assess("c3", 15_000, 4_000, START + 180_000L);
+
+        assertTrue(fourth.details().contains("fingerprint_hour=4"));
+        assertTrue(fourth.fraudRiskScore().compareTo(BASE_RISK) > 0);
+    }
+
+    @Test
+    void reassessment_doesNotCountTheApplicationAgain() {
+        assess("c1", 10_000, 3_000, START);
+        FraudVelocityEngine.VelocityAssessment reassessed = engine.assess("c1", BigDecimal.valueOf(10_000), BigDecimal.valueOf(3_000), false, START + 1_000);
+
+        assertEquals(BASE_RISK, reassessed.fraudRiskScore());
+    }
+
+    @Test
+    void dailyAmountLimit_isEnforced() {
+        assess("c1", 200_000, 9_000, START);
+        FraudVelocityEngine.VelocityAssessment second = assess("c1", 150_000, 9_000, START + Duration.ofHours(2).toMillis());
+
+        assertTrue(second.details().contains("customer_amount_day=350000"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clusterWideAssessment_seesOtherPodsCounts_forKeysThisPodNeverRecorded() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        ReactiveHashOperations<String, String, String> hashOps = mock(ReactiveHashOperations.class);
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOps);
+        when(hashOps.entries(anyString())).thenReturn(Flux.empty());
+        // Four applications of c2 recorded by other pods in the current 5 min bucket
+        long epoch = System.currentTimeMillis() / Duration.ofMinutes(5).toMillis();
+        when(hashOps.entries("fraud_velocity:customer:c2")).thenReturn(Flux.just(Map.entry("c:" + epoch, "4"), Map.entry("a:" + epoch, "40000")));
+        FraudVelocityEngine clustered = new FraudVelocityEngine(redisTemplate, new SimpleMeterRegistry(), 1000, 1, 3, 5, 250_000, 3, 10, true, Duration.ofSeconds(1));
+
+        FraudVelocityEngine.VelocityAssessment result = clustered.assessClusterWide("c2", BigDecimal.valueOf(10_000), BigDecimal.valueOf(3_000), true).block();
+
+        // customer_hour = 4 against a limit of 3: a third of the signal's weight (0.25)
+        assertTrue(result.details().contains("customer_hour=4"));
+        assertEquals(new BigDecimal("0.1333"), result.fraudRiskScore());
+    }
+
+    private FraudVelocityEngine.VelocityAssessment assess(String customerId, long amount, long income, long now) {
+        return engine.assess(customerId, BigDecimal.valueOf(amount), BigDecimal.valueOf(income), true, now);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.riskassessmentservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Runs the partition functions of postgres/init.sql against a real Postgres
+@Testcontainers(disabledWithoutDocker = true)
+class PartitionMaintenanceServiceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("loan_db")
+            .withCopyFileToContainer(MountableFile.forHostPath("../postgres/init.sql"), "/docker-entrypoint-initdb.d/init.sql");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void connect() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+    }
+
+    @Test
+    void detachOnly_detachesReferencingPartitionsFirst_andKeepsTheRows() {
+        createExpiredMonth("2001_01", "2001-01-01", "2001-02-01");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        new PartitionMaintenanceService(jdbcTemplate, meterRegistry, 3, false, 84, 6).maintainPartitions();
+
+        assertEquals(0, count(meterRegistry, "risk_factors", "error") + count(meterRegistry, "risk_assessments", "error"));
+        assertFalse(attached("risk_assessments_p2001_01"));
+        assertFalse(attached("risk_factors_p2001_01"));
+        // Archived with their rows, without the FK to the live table
+        assertEquals(1, rows("risk_assessments_p2001_01"));
+        assertEquals(1, rows("risk_factors_p2001_01"));
+        assertEquals(0, foreignKeys("risk_factors_p2001_01"));
+    }
+
+    @Test
+    void drop_removesBothPartitions() {
+        createExpiredMonth("2001_02", "2001-02-01", "2001-03-01");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        new PartitionMaintenanceService(jdbcTemplate, meterRegistry, 3, true, 84, 6).maintainPartitions();
+
+        assertEquals(0, count(meterRegistry, "risk_factors", "error") + count(meterRegistry, "risk_assessments", "error"));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('risk_assessments_p2001_02')::text", String.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('risk_factors_p2001_02')::text", String.class));
+    }
+
+    private static void createExpiredMonth(String suffix, String from, String to) {
+        for (String parent : new String[] {"risk_assessments", "risk_factors"}) {
+            jdbcTemplate.execute("CREATE TABLE " + parent + "_p" + suffix + " PARTITION OF " + parent
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        }
+        UUID assessmentId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO risk_assessments (id, application_id, assessment_date, decision) VALUES (?, ?, ?::timestamp, 'APPROVED')",
+                assessmentId, UUID.randomUUID(), from);
+        jdbcTemplate.update("INSERT INTO risk_factors (id, assessment_id, assessment_date, factor_name) VALUES (?, ?, ?::timestamp, 'FRAUD')",
+                UUID.randomUUID(), assessmentId, from);
+    }
+
+    private static boolean attached(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = to_regclass(?))", Boolean.class, partition));
+    }
+
+    private static int rows(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+
+    private static int foreignKeys(String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'", Integer.class, table);
+    }
+
+    private static double count(SimpleMeterRegistry meterRegistry, String table, String action) {
+        var counter = meterRegistry.find("db.partitions.maintenance").tag("table", table).tag("action", action).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.riskassessmentservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShadowScoreSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void records_areAppendedAsOneJsonObjectPerLine_toTodaysFile(@TempDir Path directory) throws IOException {
+        ShadowScoreSink sink = new ShadowScoreSink(objectMapper, meterRegistry, directory.toString());
+
+        sink.append(Map.of("applicationId", "a1", "agree", true));
+        sink.append(Map.of("applicationId", "a2", "agree", false));
+        sink.close();
+
+        List<String> lines = Files.readAllLines(directory.resolve("shadow-scores-" + LocalDate.now(ZoneOffset.UTC) + ".ndjson"), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals("a2", second.get("applicationId").asText());
+        assertEquals(2.0, meterRegistry.get("scoring.shadow.sink.records").tag("status", "success").counter().count());
+    }
+
+    @Test
+    void reopenedSink_appendsToTheExistingFile(@TempDir Path directory) throws IOException {
+        ShadowScoreSink first = new ShadowScoreSink(objectMapper, meterRegistry, directory.toString());
+        first.append(Map.of("applicationId", "a1"));
+        first.close();
+        ShadowScoreSink second = new ShadowScoreSink(objectMapper, new SimpleMeterRegistry(), directory.toString());
+        second.append(Map.of("applicationId", "a2"));
+        second.close();
+
+        assertEquals(2, Files.readAllLines(directory.resolve("shadow-scores-" + LocalDate.now(ZoneOffset.UTC) + ".ndjson")).size());
+    }
+
+    @Test
+    void unserializableRecord_isCountedAndDropped(@TempDir Path directory) {
+        ShadowScoreSink sink = new ShadowScoreSink(objectMapper, meterRegistry, directory.toString());
+
+        sink.append(new Object()); // No properties: Jackson refuses empty beans
+        sink.close();
+
+        assertEquals(1.0, meterRegistry.get("scoring.shadow.sink.records").tag("status", "error").counter().count());
+        assertEquals(0.0, meterRegistry.get("scoring.shadow.sink.records").tag("status", "success").counter().count());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.riskassessmentservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ShadowScoringServiceTest {
+
+    private final RiskScoringPolicy champion = new RiskScoringPolicy(new BigDecimal("0.35"), new BigDecimal("0.30"),
+            new BigDecimal("0.20"), new BigDecimal("0.15"), new BigDecimal("60"));
+    private final ShadowScoreSink sink = mock(ShadowScoreSink.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ShadowScoringService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void challenger_changesOnlyTheDebtRatioComponent() {
+        // 40% debt ratio: 60 on the champion's steps, 33.3 on the challenger's linear scale
+        RiskScoringPolicy.ScoringInputs inputs = inputs(new BigDecimal("40"));
+        RiskScoringPolicy.Score championScore = champion.score(inputs);
+        RiskScoringPolicy.Score challengerScore = new ContinuousDebtRatioChallenger(champion).score(inputs);
+
+        assertEquals(championScore.creditComponent(), challengerScore.creditComponent());
+        assertEquals(championScore.collateralComponent(), challengerScore.collateralComponent());
+        assertEquals(championScore.fraudComponent(), challengerScore.fraudComponent());
+        assertTrue(challengerScore.debtRatioComponent().compareTo(championScore.debtRatioComponent()) < 0);
+    }
+
+    @Test
+    void submittedAssessment_isComparedAndWrittenToTheSink() {
+        service = service(List.of(new ContinuousDebtRatioChallenger(champion)), 1, 10);
+        UUID applicationId = UUID.randomUUID();
+        RiskScoringPolicy.ScoringInputs inputs = inputs(new BigDecimal("10"));
+
+        service.submit(applicationId, inputs, champion.score(inputs));
+
+        ArgumentCaptor<ShadowScoringService.ShadowScore> written = ArgumentCaptor.forClass(ShadowScoringService.ShadowScore.class);
+        verify(sink, timeout(5_000)).append(written.capture());
+        ShadowScoringService.ShadowScore record = written.getValue();
+        assertEquals(applicationId, record.applicationId());
+        assertEquals(ContinuousDebtRatioChallenger.NAME, record.challenger());
+        assertEquals(record.championDecision().equals(record.challengerDecision()), record.agree());
+        assertEquals(record.challengerScore().subtract(record.championScore()), record.scoreDelta());
+    }
+
+    @Test
+    void fullQueue_dropsTheRun_insteadOfBlocking() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ChallengerScorer slow = new ChallengerScorer() {
+            @Override
+            public String name() {
+                return "slow";
+            }
+
+            @Override
+            public RiskScoringPolicy.Score score(RiskScoringPolicy.ScoringInputs inputs) {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return champion.score(inputs);
+            }
+        };
+        service = service(List.of(slow), 1, 1);
+        RiskScoringPolicy.ScoringInputs inputs = inputs(new BigDecimal("10"));
+        RiskScoringPolicy.Score score = champion.score(inputs);
+
+        service.submit(UUID.randomUUID(), inputs, score); // Runs and blocks the only thread
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        service.submit(UUID.randomUUID(), inputs, score); // Fills the queue
+        service.submit(UUID.randomUUID(), inputs, score); // Dropped
+
+        assertEquals(1.0, meterRegistry.get("scoring.shadow.dropped").counter().count());
+        release.countDown();
+        verify(sink, timeout(5_000).times(2)).append(any());
+    }
+
+    @Test
+    void unknownChallenger_failsAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> new ShadowScoringService(List.of(new ContinuousDebtRatioChallenger(champion)),
+                sink, meterRegistry, true, List.of("no-such-challenger"), 1, 10));
+    }
+
+    private ShadowScoringService service(List<ChallengerScorer> scorers, int threads, int queueCapacity) {
+        return new ShadowScoringService(scorers, sink, meterRegistry, true,
+                scorers.stream().map(ChallengerScorer::name).toList(), threads, queueCapacity);
+    }
+
+    private static RiskScoringPolicy.ScoringInputs inputs(BigDecimal debtRatio) {
+        return new RiskScoringPolicy.ScoringInputs(720, "OK", debtRatio, new BigDecimal("50000"), new BigDecimal("0.05"), null);
+    }
+}